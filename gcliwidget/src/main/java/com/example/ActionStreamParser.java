@@ -0,0 +1,97 @@
+package com.example;
+
+import java.util.function.Consumer;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+/**
+ * 모델이 조각조각 보내는 응답 글자를 받아 {"actions": [...]} 배열의 원소가 하나 닫힐 때마다 바로 넘긴다.
+ * 전체 JSON 이 다 올 때까지 기다리지 않으므로 여러 동작이 든 응답도 첫 동작부터 곧바로 적용할 수 있다.
+ * 문자열 안의 괄호와 이스케이프는 건너뛰고, 루트 객체 바깥 글자(```json 울타리 등)는 무시한다.
+ * 한 스레드에서만 feed 한다.
+ */
+class ActionStreamParser {
+
+    private final Gson gson = new Gson();
+    private final Consumer<JsonObject> onAction;
+    // 지금까지 받은 글자 전체. 동작이 하나도 없던 응답(오류 등)은 끝난 뒤 이걸 통째로 해석한다.
+    private final StringBuilder text = new StringBuilder();
+    // 지금 읽고 있는 동작 하나의 글자.
+    private final StringBuilder action = new StringBuilder();
+    private final StringBuilder key = new StringBuilder();
+    private String lastKey;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+    private boolean readingKey;
+    // actions 배열 안이면 true, 배열이 닫히면 다시 false.
+    private boolean inActions;
+    private boolean capturing;
+    private int actionCount;
+
+    ActionStreamParser(Consumer<JsonObject> onAction) {
+        this.onAction = onAction;
+    }
+
+    void feed(CharSequence chunk) {
+        for (int i = 0; i < chunk.length(); i++) {
+            accept(chunk.charAt(i));
+        }
+    }
+
+    String text() {
+        return text.toString();
+    }
+
+    int actionCount() {
+        return actionCount;
+    }
+
+    private void accept(char c) {
+        text.append(c);
+        if (capturing) action.append(c);
+        if (inString) {
+            if (escaped) {
+                escaped = false;
+            } else if (c == '\\') {
+                escaped = true;
+            } else if (c == '"') {
+                inString = false;
+                if (readingKey) lastKey = key.toString();
+            } else if (readingKey) {
+                key.append(c);
+            }
+            return;
+        }
+        switch (c) {
+            case '"' -> {
+                inString = true;
+                readingKey = depth == 1;
+                key.setLength(0);
+            }
+            case '{', '[' -> {
+                depth++;
+                if (c == '[' && depth == 2 && "actions".equals(lastKey)) {
+                    inActions = true;
+                } else if (c == '{' && inActions && depth == 3) {
+                    capturing = true;
+                    action.setLength(0);
+                    action.append(c);
+                }
+            }
+            case '}', ']' -> {
+                if (c == '}' && capturing && depth == 3) {
+                    capturing = false;
+                    actionCount++;
+                    onAction.accept(gson.fromJson(action.toString(), JsonObject.class));
+                } else if (c == ']' && inActions && depth == 2) {
+                    inActions = false;
+                }
+                if (depth > 0) depth--;
+            }
+            default -> {
+            }
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.example;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+/**
+ * 일정을 날짜순으로 죽 늘어놓는 목록 보기. ListView 라서 보이는 줄만 노드를 만들고,
+ * 일정은 한 달씩 백그라운드에서 읽어 스크롤이 위아래 끝에 가까워질 때 이어 붙인다.
+ * 저장소 변경 알림을 받으면 읽어 둔 범위 안의 바뀐 날짜만 다시 맞춘다.
+ */
+public class AgendaView extends VBox {
+
+    private static final double ROW_HEIGHT = 24;
+    // 끝에서 이 줄 수 안쪽이 보이면 다음 달을 읽는다.
+    private static final int PREFETCH_ROWS = 40;
+    // 일정이 없는 달이 이만큼 이어지면 그쪽으로는 더 읽지 않는다.
+    private static final int MAX_EMPTY_MONTHS = 24;
+    private static final DateTimeFormatter HEADER_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    /**
+     * 목록의 한 줄. event 가 null 이면 날짜 머리줄이다.
+     */
+    private record AgendaRow(LocalDate date, Event event) {}
+
+    private final CalendarDataManager dataManager;
+    private final ListView<AgendaRow> agendaList = new ListView<>();
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "agenda-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Consumer<LocalDate> onDateSelected = date -> {};
+
+    // 지금 목록에 읽어 둔 달의 범위(양끝 포함). 아래 상태는 모두 FX 스레드에서만 만진다.
+    private YearMonth loadedFrom;
+    private YearMonth loadedTo;
+    private boolean loadingPrevious;
+    private boolean loadingNext;
+    private boolean reachedStart;
+    private boolean reachedEnd;
+    // 처음부터 다시 읽으면 올라간다. 그 전에 보낸 읽기 결과는 버린다.
+    private int generation;
+
+    public AgendaView() {
+        this(CalendarDataManager.getInstance());
+    }
+
+    AgendaView(CalendarDataManager dataManager) {
+        this.dataManager = dataManager;
+        setPadding(new Insets(10));
+        setSpacing(10);
+        setStyle("-fx-background-color: transparent;");
+
+        Label title = new Label("Agenda");
+        title.setFont(Font.font("Segoe UI", FontWeight.BOLD, 22));
+        title.setTextFill(Color.WHITE);
+        Button todayButton = new Button("Today");
+        todayButton.setOnAction(e -> reload(LocalDate.now()));
+        HBox header = new HBox(10, title, todayButton);
+        header.setAlignment(Pos.CENTER_LEFT);
+
+        agendaList.setFixedCellSize(ROW_HEIGHT);
+        agendaList.setStyle("-fx-background-color: transparent; -fx-control-inner-background: rgba(0,0,0,0.3);");
+        agendaList.setCellFactory(list -> new AgendaCell());
+        agendaList.setPlaceholder(new Label("No events."));
+
+        getChildren().addAll(header, agendaList);
+        VBox.setVgrow(agendaList, Priority.ALWAYS);
+        dataManager.addChangeListener(this::onCalendarChanged, Platform::runLater);
+        reload(LocalDate.now());
+    }
+
+    /**
+     * 날짜 머리줄이나 일정을 두 번 누르면 그 날짜로 불린다.
+     */
+    public void setOnDateSelected(Consumer<LocalDate> onDateSelected) {
+        this.onDateSelected = onDateSelected;
+    }
+
+    private void reload(LocalDate focus) {
+        generation++;
+        YearMonth month = YearMonth.from(focus);
+        loadedFrom = month;
+        loadedTo = month.minusMonths(1);
+        loadingPrevious = false;
+        loadingNext = false;
+        reachedStart = false;
+        reachedEnd = false;
+        agendaList.getItems().clear();
+        loadNext(() -> {
+            scrollToDate(focus);
+            // 이번 달이 짧으면 바로 다음 달도 채운다.
+            if (agendaList.getItems().size() < PREFETCH_ROWS) loadNext(null);
+        });
+    }
+
+    private void loadNext(Runnable afterApply) {
+        if (loadingNext || reachedEnd) return;
+        loadingNext = true;
+        int requested = generation;
+        YearMonth start = loadedTo.plusMonths(1);
+        loader.execute(() -> {
+            PageResult page = readPage(start, 1);
+            Platform.runLater(() -> {
+                if (requested != generation) return;
+                loadingNext = false;
+                loadedTo = page.last();
+                reachedEnd = page.rows().isEmpty();
+                agendaList.getItems().addAll(page.rows());
+                refreshIfChanged(page);
+                if (afterApply != null) afterApply.run();
+            });
+        });
+    }
+
+    private void loadPrevious() {
+        if (loadingPrevious || reachedStart) return;
+        loadingPrevious = true;
+        int requested = generation;
+        YearMonth start = loadedFrom.minusMonths(1);
+        loader.execute(() -> {
+            PageResult page = readPage(start, -1);
+            Platform.runLater(() -> {
+                if (requested != generation) return;
+                loadingPrevious = false;
+                loadedFrom = page.last();
+                reachedStart = page.rows().isEmpty();
+                agendaList.getItems().addAll(0, page.rows());
+                // 보던 줄이 밀려 내려가지 않도록 붙인 만큼 스크롤을 옮긴다.
+                if (!page.rows().isEmpty()) agendaList.scrollTo(page.rows().size());
+                refreshIfChanged(page);
+            });
+        });
+    }
+
+    // 읽은 달들의 줄, 마지막으로 읽은 달, 읽기 시작할 때의 저장소 버전.
+    private record PageResult(List<AgendaRow> rows, YearMonth first, YearMonth last, long version) {}
+
+    // start 부터 direction 쪽으로, 일정이 있는 달을 만날 때까지(최대 MAX_EMPTY_MONTHS) 읽는다. 로더 스레드에서 실행된다.
+    private PageResult readPage(YearMonth start, int direction) {
+        long version = dataManager.getVersion();
+        YearMonth month = start;
+        for (int scanned = 0; scanned < MAX_EMPTY_MONTHS; scanned++, month = month.plusMonths(direction)) {
+            List<AgendaRow> rows = rowsOf(dataManager.getEventsInRange(month.atDay(1), month.atEndOfMonth()));
+            if (!rows.isEmpty()) return new PageResult(rows, start, month, version);
+        }
+        return new PageResult(List.of(), start, month.minusMonths(direction), version);
+    }
+
+    // 읽는 사이에 저장소가 바뀌었으면, 방금 붙인 달들은 아직 변경 알림이 닿지 않았을 수 있으므로 한 번 더 맞춘다.
+    private void refreshIfChanged(PageResult page) {
+        if (dataManager.getVersion() == page.version()) return;
+        YearMonth from = page.first().isBefore(page.last()) ? page.first() : page.last();
+        YearMonth to = page.first().isBefore(page.last()) ? page.last() : page.first();
+        Map<LocalDate, List<Event>> events = dataManager.getEventsInRange(from.atDay(1), to.atEndOfMonth());
+        for (LocalDate date = from.atDay(1); !date.isAfter(to.atEndOfMonth()); date = date.plusDays(1)) {
+            replaceDate(date, events.getOrDefault(date, List.of()));
+        }
+    }
+
+    private static List<AgendaRow> rowsOf(Map<LocalDate, List<Event>> days) {
+        List<AgendaRow> rows = new ArrayList<>();
+        days.forEach((date, events) -> appendDay(rows, date, events));
+        return rows;
+    }
+
+    private static void appendDay(List<AgendaRow> rows, LocalDate date, List<Event> events) {
+        if (events.isEmpty()) return;
+        rows.add(new AgendaRow(date, null));
+        events.forEach(event -> rows.add(new AgendaRow(date, event)));
+    }
+
+    private void onCalendarChanged(List<CalendarChange> changes) {
+        if (loadedTo.isBefore(loadedFrom)) return;
+        for (LocalDate date : CalendarChange.datesOf(changes)) {
+            YearMonth month = YearMonth.from(date);
+            if (month.isBefore(loadedFrom) || month.isAfter(loadedTo)) continue;
+            replaceDate(date, dataManager.getEventsForDate(date));
+        }
+    }
+
+    // 그 날짜의 줄만 새 목록으로 갈아 끼운다. 줄은 날짜순이므로 이분 탐색으로 자리를 찾는다.
+    private void replaceDate(LocalDate date, List<Event> events) {
+        ObservableList<AgendaRow> items = agendaList.getItems();
+        int start = firstIndexOnOrAfter(items, date);
+        int end = start;
+        while (end < items.size() && items.get(end).date().equals(date)) end++;
+        List<AgendaRow> rows = new ArrayList<>();
+        appendDay(rows, date, events);
+        if (start == end && rows.isEmpty()) return;
+        if (end - start == rows.size()) {
+            for (int i = 0; i < rows.size(); i++) {
+                if (!rows.get(i).equals(items.get(start + i))) items.set(start + i, rows.get(i));
+            }
+        } else {
+            items.remove(start, end);
+            items.addAll(start, rows);
+        }
+    }
+
+    private static int firstIndexOnOrAfter(List<AgendaRow> rows, LocalDate date) {
+        int low = 0;
+        int high = rows.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (rows.get(mid).date().isBefore(date)) low = mid + 1;
+            else high = mid;
+        }
+        return low;
+    }
+
+    private void scrollToDate(LocalDate date) {
+        int index = firstIndexOnOrAfter(agendaList.getItems(), date);
+        if (index < agendaList.getItems().size()) agendaList.scrollTo(index);
+    }
+
+    /**
+     * 한 줄. 보이는 줄 수만큼만 만들어 돌려 쓰고, 끝 근처 줄이 그려질 때 앞뒤 달을 더 읽는다.
+     */
+    private final class AgendaCell extends ListCell<AgendaRow> {
+        private final Label label = new Label();
+
+        AgendaCell() {
+            setStyle("-fx-background-color: transparent;");
+            label.setMaxWidth(Double.MAX_VALUE);
+            setOnMouseClicked(mouseEvent -> {
+                if (getItem() != null && mouseEvent.getButton() == MouseButton.PRIMARY && mouseEvent.getClickCount() == 2) {
+                    onDateSelected.accept(getItem().date());
+                }
+            });
+        }
+
+        @Override
+        protected void updateItem(AgendaRow row, boolean empty) {
+            super.updateItem(row, empty);
+            setText(null);
+            if (empty || row == null) {
+                setGraphic(null);
+                return;
+            }
+            if (row.event() == null) {
+                label.setText(row.date().format(HEADER_FORMAT) + " (" + row.date().getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.getDefault()) + ")");
+                boolean today = row.date().equals(LocalDate.now());
+                label.setStyle("-fx-font-weight: bold; -fx-text-fill: " + (today ? "#add8e6" : "white") + ";");
+            } else {
+                Event event = row.event();
+                label.setText("    " + (event.isCompleted() ? "✓ " : "• ") + event);
+                label.setStyle(event.isCompleted()
+                        ? "-fx-strikethrough: true; -fx-text-fill: #8fbc8f;"
+                        : "-fx-strikethrough: false; -fx-text-fill: white;");
+            }
+            setGraphic(label);
+
+            int index = getIndex();
+            int size = getListView().getItems().size();
+            if (index >= size - PREFETCH_ROWS) loadNext(null);
+            if (index < PREFETCH_ROWS) loadPrevious();
+        }
+    }
+}
@@ -1,14 +1,19 @@
 package com.example;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
@@ -19,15 +24,20 @@ import com.google.gson.JsonSyntaxException;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
+import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
 import javafx.scene.Cursor;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.control.ProgressIndicator;
+import javafx.scene.control.Separator;
 import javafx.scene.control.Slider;
-import javafx.scene.control.TextArea;
 import javafx.scene.control.TextField;
 import javafx.scene.control.TextInputDialog;
 import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
 import javafx.scene.layout.BorderPane;
 import javafx.scene.layout.HBox;
 import javafx.scene.layout.StackPane;
@@ -38,15 +48,34 @@ import javafx.stage.StageStyle;
 
 public class App extends Application {
 
-    private TextArea terminalOutput;
+    // -Dgcliwidget.gemini.stream=false 면 응답 전체를 받은 뒤에 한꺼번에 적용한다.
+    private static final boolean STREAM_RESPONSES = !"false".equals(System.getProperty("gcliwidget.gemini.stream"));
+
+    private TerminalLogView terminalOutput;
     private TextField commandInput;
     private GeminiService geminiService;
+    // 키를 바꿔 서비스를 다시 만들어도 기억해 둔 응답은 그대로 쓴다.
+    private final GeminiResponseCache responseCache = new GeminiResponseCache();
+    private ScheduleContextBuilder scheduleContextBuilder;
+    private LocalCommandParser localCommandParser;
+    private ShellExecutor shellExecutor;
     private final Gson gson = new Gson();
     private CalendarView calendarView;
+    // 저장소를 백그라운드에서 다 읽으면 true. 그 전에는 달력 자리에 안내만 보여 준다. FX 스레드에서만 쓴다.
+    private boolean calendarReady;
+    private boolean firstFrameShown;
+    // --cds-training 으로 띄우면 첫 프레임과 달력이 다 나온 뒤 스스로 닫힌다. AppCDS 아카이브를 만드는 학습 실행용.
+    private boolean cdsTraining;
+    private CalendarLayout calendarLayout = CalendarLayout.MONTH;
     private BorderPane contentPane;
     private BorderPane terminalPane;
 
     private enum TerminalPosition {LEFT, RIGHT, BOTTOM}
+    private enum CalendarLayout {MONTH, AGENDA, YEAR}
+
+    // 목록/연간 보기는 처음 고를 때 만든다.
+    private AgendaView agendaView;
+    private YearHeatmapView yearHeatmapView;
 
     private final Delta dragDelta = new Delta();
     private double initialX, initialY, initialWidth, initialHeight;
@@ -54,6 +83,7 @@ public class App extends Application {
     private static final int RESIZE_BORDER_WIDTH = 10;
     private static final double MIN_WIDTH = 600;
     private static final double MIN_HEIGHT = 500;
+    private static final KeyCombination INTERRUPT = new KeyCodeCombination(KeyCode.C, KeyCombination.SHORTCUT_DOWN);
 
     static class Delta {
         double x, y;
@@ -61,31 +91,47 @@ public class App extends Application {
 
     @Override
     public void start(final Stage stage) {
+        cdsTraining = getParameters().getRaw().contains("--cds-training");
+        if (cdsTraining) {
+            // 달력을 끝내 못 읽더라도 학습 실행이 빌드를 붙잡고 있지 않게 한다.
+            CompletableFuture.delayedExecutor(2, TimeUnit.MINUTES).execute(Platform::exit);
+        }
         // stage.initStyle(StageStyle.TRANSPARENT);
 
         contentPane = new BorderPane();
         contentPane.setStyle("-fx-background-color: rgba(0, 0, 0, 0.5); -fx-background-radius: 10;");
 
-        calendarView = new CalendarView(LocalDate.now());
-        contentPane.setCenter(calendarView);
+        // 저장소를 읽는 동안 창과 터미널을 먼저 띄운다.
+        ProgressIndicator loadingIndicator = new ProgressIndicator();
+        loadingIndicator.setMaxSize(40, 40);
+        Label loadingLabel = new Label("Loading calendar...");
+        loadingLabel.setTextFill(Color.WHITE);
+        VBox loadingPane = new VBox(10, loadingIndicator, loadingLabel);
+        loadingPane.setAlignment(Pos.CENTER);
+        contentPane.setCenter(loadingPane);
 
         terminalPane = new BorderPane();
         terminalPane.setPadding(new Insets(10));
         terminalPane.setStyle("-fx-background-color: rgba(20, 20, 20, 0.7); -fx-background-radius: 8;");
 
-        terminalOutput = new TextArea();
-        terminalOutput.setEditable(false);
-        terminalOutput.setWrapText(true);
-        terminalOutput.setStyle("-fx-font-family: 'monospaced'; -fx-control-inner-background: rgba(0,0,0,0.5); -fx-text-fill: white;");
-        terminalOutput.setText("Welcome to gcliwidget!\n");
+        terminalOutput = new TerminalLogView();
+        terminalOutput.append("Welcome to gcliwidget!\n");
+        shellExecutor = new ShellExecutor(terminalOutput::appendLine);
 
         commandInput = new TextField();
         commandInput.setStyle("-fx-font-family: 'monospaced'; -fx-background-color: rgba(255,255,255,0.1); -fx-text-fill: white;");
         commandInput.setOnKeyPressed(event -> {
+            // 입력란에 고른 글자가 없으면 Ctrl+C 는 가장 최근에 시작한 셸 명령을 멈춘다.
+            if (INTERRUPT.match(event) && commandInput.getSelectedText().isEmpty()) {
+                Optional<Integer> killed = shellExecutor.killLatest();
+                terminalOutput.append(killed.isPresent() ? "^C\n" : "No running command.\n");
+                event.consume();
+                return;
+            }
             if (event.getCode() == KeyCode.ENTER) {
                 String command = commandInput.getText().trim();
                 if (!command.isBlank()) {
-                    terminalOutput.appendText("> " + command + "\n");
+                    terminalOutput.append("> " + command + "\n");
                     executeCommand(command);
                     commandInput.clear();
                 }
@@ -124,11 +170,71 @@ public class App extends Application {
         stage.setScene(scene);
         stage.setTitle("gcliwidget - Calendar & Terminal");
         stage.show();
+        reportFirstFrame(scene);
+        loadCalendarInBackground();
+    }
+
+    private void loadCalendarInBackground() {
+        Thread loader = new Thread(() -> {
+            try {
+                CalendarDataManager.getInstance();
+                Platform.runLater(this::onCalendarLoaded);
+            } catch (RuntimeException e) {
+                System.err.println("Could not load calendar: " + e.getMessage());
+                e.printStackTrace();
+                terminalOutput.append("Could not load calendar: " + e.getMessage() + "\n");
+            }
+        }, "calendar-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void onCalendarLoaded() {
+        calendarView = new CalendarView(LocalDate.now());
+        calendarReady = true;
+        // 제목 색인을 지금부터 백그라운드에서 채워 둔다.
+        scheduleContextBuilder = new ScheduleContextBuilder(CalendarDataManager.getInstance());
+        setCalendarLayout(calendarLayout);
+        // 알림도 저장소를 쓰므로 다 읽은 뒤에 시작한다.
         NotificationService.getInstance().start();
+        System.out.println("Startup: calendar ready after " + millisSinceJvmStart() + " ms");
+        exitIfTrainingDone();
+    }
+
+    // AppCDS 학습 실행은 첫 화면과 달력을 그리는 데 쓴 클래스만 있으면 된다.
+    private void exitIfTrainingDone() {
+        if (cdsTraining && firstFrameShown && calendarReady) {
+            Platform.runLater(Platform::exit);
+        }
+    }
+
+    // 첫 펄스의 레이아웃이 끝난 시점을 첫 프레임으로 보고, JVM 시작부터 걸린 시간을 로그에 남긴다.
+    private void reportFirstFrame(Scene scene) {
+        Runnable[] listener = new Runnable[1];
+        listener[0] = () -> {
+            scene.removePostLayoutPulseListener(listener[0]);
+            boolean appCds = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                    .anyMatch(argument -> argument.startsWith("-XX:SharedArchiveFile"));
+            System.out.println("Startup: first frame after " + millisSinceJvmStart() + " ms (AppCDS " + (appCds ? "on" : "off") + ")");
+            firstFrameShown = true;
+            exitIfTrainingDone();
+        };
+        scene.addPostLayoutPulseListener(listener[0]);
+    }
+
+    private static long millisSinceJvmStart() {
+        return System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
     }
     @Override
     public void stop() throws Exception {
-        NotificationService.getInstance().stop();
+        if (shellExecutor != null) {
+            shellExecutor.close();
+        }
+        // 다 읽기 전에 닫으면 저장할 변경도 없으므로 저장소를 기다리지 않는다.
+        if (calendarReady) {
+            NotificationService.getInstance().stop();
+            CalendarDataManager.getInstance().flush();
+        }
         super.stop();
     }
     
@@ -138,8 +244,41 @@ public class App extends Application {
         String buttonStyle = "-fx-background-color: rgba(255,255,255,0.1); -fx-text-fill: white; -fx-font-size: 10px; -fx-padding: 2 6 2 6;";
         leftButton.setStyle(buttonStyle); bottomButton.setStyle(buttonStyle); rightButton.setStyle(buttonStyle);
         leftButton.setOnAction(e -> setTerminalPosition(TerminalPosition.LEFT)); bottomButton.setOnAction(e -> setTerminalPosition(TerminalPosition.BOTTOM)); rightButton.setOnAction(e -> setTerminalPosition(TerminalPosition.RIGHT));
-        HBox layoutControls = new HBox(5, leftButton, bottomButton, rightButton); layoutControls.setAlignment(Pos.CENTER_RIGHT); return layoutControls;
+        Button monthButton = new Button("MONTH"); Button agendaButton = new Button("AGENDA"); Button yearButton = new Button("YEAR");
+        monthButton.setStyle(buttonStyle); agendaButton.setStyle(buttonStyle); yearButton.setStyle(buttonStyle);
+        monthButton.setOnAction(e -> setCalendarLayout(CalendarLayout.MONTH)); agendaButton.setOnAction(e -> setCalendarLayout(CalendarLayout.AGENDA)); yearButton.setOnAction(e -> setCalendarLayout(CalendarLayout.YEAR));
+        HBox layoutControls = new HBox(5, monthButton, agendaButton, yearButton, new Separator(Orientation.VERTICAL), leftButton, bottomButton, rightButton); layoutControls.setAlignment(Pos.CENTER_RIGHT); return layoutControls;
     }
+    private void setCalendarLayout(CalendarLayout layout) {
+        calendarLayout = layout;
+        if (!calendarReady) return;
+        switch (layout) {
+            case AGENDA:
+                if (agendaView == null) {
+                    agendaView = new AgendaView();
+                    agendaView.setOnDateSelected(this::showMonthOf);
+                }
+                contentPane.setCenter(agendaView);
+                break;
+            case YEAR:
+                if (yearHeatmapView == null) {
+                    yearHeatmapView = new YearHeatmapView();
+                    yearHeatmapView.setOnDateSelected(this::showMonthOf);
+                }
+                contentPane.setCenter(yearHeatmapView);
+                break;
+            case MONTH:
+            default:
+                contentPane.setCenter(calendarView);
+                break;
+        }
+    }
+
+    private void showMonthOf(LocalDate date) {
+        calendarView.showMonth(YearMonth.from(date));
+        setCalendarLayout(CalendarLayout.MONTH);
+    }
+
     private void setTerminalPosition(TerminalPosition position) {
         contentPane.setBottom(null);
         contentPane.setLeft(null);
@@ -167,30 +306,80 @@ public class App extends Application {
         scene.setOnMouseMoved(mouseEvent -> { double x = mouseEvent.getX(); double y = mouseEvent.getY(); double width = stage.getWidth(); double height = stage.getHeight(); boolean onTop = y < RESIZE_BORDER_WIDTH; boolean onBottom = y > height - RESIZE_BORDER_WIDTH; boolean onLeft = x < RESIZE_BORDER_WIDTH; boolean onRight = x > width - RESIZE_BORDER_WIDTH; if (onTop && onLeft) { scene.setCursor(Cursor.NW_RESIZE); resizeMode = 5; } else if (onTop && onRight) { scene.setCursor(Cursor.NE_RESIZE); resizeMode = 6; } else if (onBottom && onLeft) { scene.setCursor(Cursor.SW_RESIZE); resizeMode = 7; } else if (onBottom && onRight) { scene.setCursor(Cursor.SE_RESIZE); resizeMode = 8; } else if (onTop) { scene.setCursor(Cursor.N_RESIZE); resizeMode = 1; } else if (onBottom) { scene.setCursor(Cursor.S_RESIZE); resizeMode = 2; } else if (onRight) { scene.setCursor(Cursor.E_RESIZE); resizeMode = 3; } else if (onLeft) { scene.setCursor(Cursor.W_RESIZE); resizeMode = 4; } else { scene.setCursor(Cursor.DEFAULT); resizeMode = 0; } }); scene.setOnMousePressed(mouseEvent -> { if (resizeMode == 0) { dragDelta.x = stage.getX() - mouseEvent.getScreenX(); dragDelta.y = stage.getY() - mouseEvent.getScreenY(); } else { initialX = mouseEvent.getScreenX(); initialY = mouseEvent.getScreenY(); initialWidth = stage.getWidth(); initialHeight = stage.getHeight(); } }); scene.setOnMouseDragged(mouseEvent -> { if (resizeMode != 0) { double newWidth = initialWidth, newHeight = initialHeight, newX = stage.getX(), newY = stage.getY(); if (resizeMode == 3 || resizeMode == 6 || resizeMode == 8) newWidth = initialWidth + (mouseEvent.getScreenX() - initialX); if (resizeMode == 4 || resizeMode == 5 || resizeMode == 7) { newWidth = initialWidth - (mouseEvent.getScreenX() - initialX); newX = initialX + (mouseEvent.getScreenX() - initialX); } if (resizeMode == 2 || resizeMode == 7 || resizeMode == 8) newHeight = initialHeight + (mouseEvent.getScreenY() - initialY); if (resizeMode == 1 || resizeMode == 5 || resizeMode == 6) { newHeight = initialHeight - (mouseEvent.getScreenY() - initialY); newY = initialY + (mouseEvent.getScreenY() - initialY); } if (newWidth >= MIN_WIDTH) { stage.setWidth(newWidth); if (resizeMode == 4 || resizeMode == 5 || resizeMode == 7) stage.setX(newX); } if (newHeight >= MIN_HEIGHT) { stage.setHeight(newHeight); if (resizeMode == 1 || resizeMode == 5 || resizeMode == 6) stage.setY(newY); } } else { stage.setX(mouseEvent.getScreenX() + dragDelta.x); stage.setY(mouseEvent.getScreenY() + dragDelta.y); } });
     }
     private void setupGeminiService() { /* ... no changes ... */ 
-        String apiKey = ApiKeyManager.loadApiKey(); if (apiKey == null || apiKey.isBlank()) { commandInput.setDisable(true); commandInput.setPromptText("API Key required. Restart or enter 'setkey' command."); terminalOutput.appendText("Google AI API Key is not set.\n"); Platform.runLater(this::showApiKeyDialog); } else { initializeGeminiService(apiKey); }
+        String apiKey = ApiKeyManager.loadApiKey(); if (apiKey == null || apiKey.isBlank()) { commandInput.setDisable(true); commandInput.setPromptText("API Key required. Restart or enter 'setkey' command."); terminalOutput.append("Google AI API Key is not set.\n"); Platform.runLater(this::showApiKeyDialog); } else { initializeGeminiService(apiKey); }
     }
     private void showApiKeyDialog() { /* ... no changes ... */ 
         TextInputDialog dialog = new TextInputDialog(); dialog.initStyle(StageStyle.UTILITY); dialog.setTitle("API Key Required"); dialog.setHeaderText("Please enter your Google AI API Key."); dialog.setContentText("API Key:"); Optional<String> result = dialog.showAndWait(); result.ifPresent(key -> { if (!key.isBlank()) { ApiKeyManager.saveApiKey(key); initializeGeminiService(key); } });
     }
     private void initializeGeminiService(String apiKey) { /* ... no changes ... */ 
-        geminiService = new GeminiService(apiKey); commandInput.setDisable(false); commandInput.setPromptText("Enter command and press Enter..."); terminalOutput.appendText("Gemini service is ready.\n");
+        geminiService = new GeminiService(apiKey, responseCache); geminiService.warmUp(); commandInput.setDisable(false); commandInput.setPromptText("Enter command and press Enter..."); terminalOutput.append("Gemini service is ready.\n");
     }
     private void executeCommand(String command) { /* ... no changes ... */ 
         Set<String> shellCommands = new HashSet<>(Arrays.asList("dir", "ls", "echo", "ping", "whoami", "cls", "clear")); String[] parts = command.split("\\s+", 2); String baseCommand = parts[0].toLowerCase(); 
         if ("testnotify".equalsIgnoreCase(baseCommand)) {
-            terminalOutput.appendText("Sending a test notification now...\n");
+            terminalOutput.append("Sending a test notification now...\n");
             // 테스트를 위한 가짜 이벤트 객체 생성
             Event testEvent = new Event("This is a Test Notification!", "Now");
             // NotificationService의 메서드를 직접 호출
             NotificationService.getInstance().showNotification(testEvent, 0);
         } 
-        if (baseCommand.equals("cls") || baseCommand.equals("clear")) { terminalOutput.clear(); } else if (shellCommands.contains(baseCommand)) { executeShellCommand(command); } else if ("setkey".equalsIgnoreCase(baseCommand)) { Platform.runLater(this::showApiKeyDialog); } else { if (geminiService == null) { Platform.runLater(() -> terminalOutput.appendText("Error: Gemini API key is not set. Use 'setkey' command.\n")); return; } callGeminiApi(command); }
+        if (baseCommand.equals("cls") || baseCommand.equals("clear")) { terminalOutput.clear(); } else if (shellCommands.contains(baseCommand)) { executeShellCommand(command, ShellExecutor.DEFAULT_TIMEOUT); } else if (baseCommand.equals("timeout")) { executeTimedShellCommand(parts.length > 1 ? parts[1] : "", shellCommands); } else if (baseCommand.equals("jobs")) { listJobs(); } else if (baseCommand.equals("kill")) { killJob(parts.length > 1 ? parts[1].trim() : ""); } else if (baseCommand.equals("cache")) { manageResponseCache(parts.length > 1 ? parts[1].trim() : ""); } else if ("setkey".equalsIgnoreCase(baseCommand)) { Platform.runLater(this::showApiKeyDialog); } else { if (!calendarReady) { terminalOutput.append("Calendar is still loading. Try again in a moment.\n"); return; } if (applyLocalCommand(command)) { return; } if (geminiService == null) { Platform.runLater(() -> terminalOutput.append("Error: Gemini API key is not set. Use 'setkey' command.\n")); return; } callGeminiApi(command); }
+    }
+    private void executeShellCommand(String command, Duration timeout) {
+        try {
+            shellExecutor.submit(command, timeout);
+        } catch (IOException e) {
+            terminalOutput.append("Exception: " + e.getMessage() + "\n");
+        }
+    }
+
+    // timeout <초> <명령> : 기본 제한 시간 대신 주어진 시간 안에 끝나지 않으면 멈춘다.
+    private void executeTimedShellCommand(String arguments, Set<String> shellCommands) {
+        String[] parts = arguments.trim().split("\\s+", 2);
+        long seconds;
+        try {
+            seconds = Long.parseLong(parts[0]);
+        } catch (NumberFormatException e) {
+            seconds = -1;
+        }
+        if (seconds <= 0 || parts.length < 2 || !shellCommands.contains(parts[1].split("\\s+", 2)[0].toLowerCase())) {
+            terminalOutput.append("Usage: timeout <seconds> <command>\n");
+            return;
+        }
+        executeShellCommand(parts[1], Duration.ofSeconds(seconds));
+    }
+
+    private void listJobs() {
+        List<ShellExecutor.JobInfo> jobs = shellExecutor.jobs();
+        if (jobs.isEmpty()) {
+            terminalOutput.append("No running command.\n");
+            return;
+        }
+        jobs.forEach(job -> terminalOutput.append("[" + job.id() + "] " + job.command() + " (" + job.elapsed().toSeconds() + "s)\n"));
     }
-    private void executeShellCommand(String command) { /* ... no changes ... */ 
-        new Thread(() -> { try { ProcessBuilder processBuilder; if (System.getProperty("os.name").toLowerCase().contains("win")) { processBuilder = new ProcessBuilder("cmd.exe", "/c", "chcp 65001 > nul && " + command); } else { processBuilder = new ProcessBuilder("bash", "-c", command); } Process process = processBuilder.start(); appendStreamToTerminal(new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8)), ""); appendStreamToTerminal(new BufferedReader(new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8)), "ERROR: "); int exitCode = process.waitFor(); Platform.runLater(() -> terminalOutput.appendText("\nProcess finished with exit code: " + exitCode + "\n")); } catch (Exception e) { Platform.runLater(() -> terminalOutput.appendText("Exception: " + e.getMessage() + "\n")); } }).start();
+
+    // cache : 기억해 둔 Gemini 응답 수와 적중률, cache clear : 모두 버린다.
+    private void manageResponseCache(String argument) {
+        if (argument.equalsIgnoreCase("clear")) {
+            terminalOutput.append("Cleared " + responseCache.clear() + " cached response(s).\n");
+        } else if (argument.isEmpty()) {
+            GeminiResponseCache.Stats stats = responseCache.stats();
+            terminalOutput.append(String.format("Response cache: %d entr%s, %d hit(s), %d miss(es), hit rate %.0f%%%n",
+                    stats.entries(), stats.entries() == 1 ? "y" : "ies", stats.hits(), stats.misses(), stats.hitRate() * 100));
+        } else {
+            terminalOutput.append("Usage: cache [clear]\n");
+        }
     }
-    private void appendStreamToTerminal(BufferedReader reader, String prefix) { /* ... no changes ... */
-        reader.lines().forEach(line -> Platform.runLater(() -> terminalOutput.appendText(prefix + line + "\n")));
+
+    private void killJob(String argument) {
+        try {
+            int id = Integer.parseInt(argument);
+            if (!shellExecutor.kill(id)) {
+                terminalOutput.append("No running command with id " + id + ".\n");
+            }
+        } catch (NumberFormatException e) {
+            terminalOutput.append("Usage: kill <id>\n");
+        }
     }
 
 
@@ -198,122 +387,159 @@ public class App extends Application {
 
 // ... (다른 App.java 코드는 그대로)
 
+    // 단순한 명령은 로컬에서 바로 해석해 적용한다. 확신이 없으면 false 를 돌려 Gemini 에 맡긴다.
+    private boolean applyLocalCommand(String command) {
+        CalendarDataManager manager = CalendarDataManager.getInstance();
+        if (localCommandParser == null) {
+            localCommandParser = new LocalCommandParser(manager);
+        }
+        Optional<JsonObject> response = localCommandParser.parse(command);
+        if (response.isEmpty()) return false;
+        Platform.runLater(() -> handleResponse(gson.toJson(response.get()), manager));
+        return true;
+    }
+
     private void callGeminiApi(String prompt) {
-        Platform.runLater(() -> terminalOutput.appendText("Generating response...\n"));
+        Platform.runLater(() -> terminalOutput.append("Generating response...\n"));
+        // 컨텍스트를 만들며 저장소의 달을 올릴 수 있으므로 FX 스레드 밖에서 만든다.
+        Thread.ofVirtual().name("gemini-request").start(() -> requestGemini(prompt));
+    }
+
+    private void requestGemini(String prompt) {
         // ▼▼▼ 여기서 'manager'가 이미 선언되었습니다. ▼▼▼
         CalendarDataManager manager = CalendarDataManager.getInstance();
-        String scheduleContext = manager.getScheduleAsTextContext();
-        
-        geminiService.generateContent(prompt, scheduleContext).whenComplete((response, error) -> {
-            if (error != null) {
-                Platform.runLater(() -> terminalOutput.appendText("Error: " + error.getMessage() + "\n"));
-                return;
-            }
+        String scheduleContext = scheduleContextBuilder.build(prompt, PromptBuilder.CONTEXT_TOKEN_BUDGET);
+
+        if (!STREAM_RESPONSES) {
+            geminiService.generateContent(prompt, scheduleContext).whenComplete((response, error) -> {
+                if (error != null) {
+                    Platform.runLater(() -> terminalOutput.append("Error: " + error.getMessage() + "\n"));
+                    return;
+                }
+                Platform.runLater(() -> handleResponse(response, manager));
+            });
+            return;
+        }
+
+        // 동작이 하나 완성될 때마다 바로 적용한다. runLater 는 순서대로 돌므로 끝 처리는 마지막 동작 뒤에 온다.
+        AtomicInteger streamedActions = new AtomicInteger();
+        geminiService.streamContent(prompt, scheduleContext, actionObject -> {
+            streamedActions.incrementAndGet();
             Platform.runLater(() -> {
                 try {
-                    String jsonResponse = response.strip();
-                    if (jsonResponse.startsWith("```json")) {
-                        jsonResponse = jsonResponse.substring(7, jsonResponse.length() - 3).strip();
-                    }
+                    applyAction(actionObject, manager);
+                } catch (Exception e) {
+                    terminalOutput.append("Error processing action: " + e.getMessage() + "\n");
+                    terminalOutput.append("Action: " + actionObject + "\n");
+                }
+            });
+        }).whenComplete((response, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                terminalOutput.append("Error: " + cause.getMessage() + "\n");
+            } else if (streamedActions.get() == 0) {
+                // 동작이 하나도 없던 응답(오류 객체, 빈 actions 등)은 기존처럼 통째로 해석한다.
+                handleResponse(response, manager);
+            }
+        }));
+    }
 
-                    JsonObject responseObject = gson.fromJson(jsonResponse, JsonObject.class);
+    private void handleResponse(String response, CalendarDataManager manager) {
+        try {
+            String jsonResponse = response.strip();
+            if (jsonResponse.startsWith("```json")) {
+                jsonResponse = jsonResponse.substring(7, jsonResponse.length() - 3).strip();
+            }
 
-                    if (responseObject.has("error")) {
-                         terminalOutput.appendText("Error from Gemini: " + responseObject.get("error").getAsString() + "\n");
-                         if(responseObject.has("original_response")){
-                            terminalOutput.appendText("Original response: " + responseObject.get("original_response").getAsString() + "\n");
-                         }
-                         return;
-                    }
-                    
-                    if (!responseObject.has("actions")) {
-                        throw new JsonSyntaxException("Response is missing 'actions' array.");
-                    }
+            JsonObject responseObject = gson.fromJson(jsonResponse, JsonObject.class);
 
-                    JsonArray actions = responseObject.getAsJsonArray("actions");
-                    // ▼▼▼ [수정된 부분] 아래의 중복된 선언을 삭제했습니다. ▼▼▼
-                    // CalendarDataManager manager = CalendarDataManager.getInstance(); 
-                    boolean changesMade = false;
-
-                    for (JsonElement actionElement : actions) {
-                        JsonObject actionObject = actionElement.getAsJsonObject();
-                        String action = actionObject.get("action").getAsString();
-                        
-                        switch (action) {
-                            case "add_events": {
-                                JsonArray eventsToAdd = actionObject.getAsJsonArray("events");
-                                for (JsonElement eventEl : eventsToAdd) {
-                                    JsonObject eventData = eventEl.getAsJsonObject();
-                                    String title = eventData.get("title").getAsString();
-                                    LocalDate date = LocalDate.parse(eventData.get("date").getAsString());
-                                    String time = eventData.has("time") ? eventData.get("time").getAsString() : "";
-                                    manager.addEventForDate(date, new Event(title, time));
-                                    terminalOutput.appendText("Event added: '" + title + "' on " + date + "\n");
-                                    changesMade = true;
-                                }
-                                break;
-                            }
-                            case "complete_events": {
-                                JsonArray eventsToComplete = actionObject.getAsJsonArray("events");
-                                for (JsonElement eventEl : eventsToComplete) {
-                                    JsonObject eventInfo = eventEl.getAsJsonObject();
-                                    String title = eventInfo.get("title").getAsString();
-                                    LocalDate date = LocalDate.parse(eventInfo.get("date").getAsString());
-                                    // 'toggleEventCompletion' 메서드가 성공 여부를 boolean으로 반환하므로, 이를 활용해 더 정확한 피드백을 줄 수 있습니다.
-                                    if (manager.toggleEventCompletion(date, title)) {
-                                        terminalOutput.appendText("Event '" + title + "' on " + date + " status toggled.\n");
-                                        changesMade = true;
-                                    } else {
-                                        terminalOutput.appendText("Could not find event '" + title + "' on " + date + " to toggle.\n");
-                                    }
-                                }
-                                break;
-                            }
-                            case "delete_events": {
-                                JsonArray eventsToDelete = actionObject.getAsJsonArray("events");
-                                for (JsonElement eventEl : eventsToDelete) {
-                                    JsonObject eventInfo = eventEl.getAsJsonObject();
-                                    String title = eventInfo.get("title").getAsString();
-                                    LocalDate date = LocalDate.parse(eventInfo.get("date").getAsString());
-                                    // 'deleteEventByTitle' 메서드도 성공 여부를 boolean으로 반환합니다.
-                                    if (manager.deleteEventByTitle(date, title)) {
-                                        terminalOutput.appendText("Event '" + title + "' on " + date + " deleted.\n");
-                                        changesMade = true;
-                                    } else {
-                                        terminalOutput.appendText("Could not find event '" + title + "' on " + date + " to delete.\n");
-                                    }
-                                }
-                                break;
-                            }
-                            case "copy_events": {
-                                LocalDate sourceDate = LocalDate.parse(actionObject.get("source_date").getAsString());
-                                LocalDate destDate = LocalDate.parse(actionObject.get("destination_date").getAsString());
-                                int count = manager.copyEvents(sourceDate, destDate);
-
-                                if (count > 0) {
-                                    terminalOutput.appendText(count + " event(s) copied from " + sourceDate + " to " + destDate + ".\n");
-                                    changesMade = true;
-                                } else {
-                                    terminalOutput.appendText("No events to copy from " + sourceDate + ".\n");
-                                }
-                                break;
-                            }
-                            default:
-                                terminalOutput.appendText("Gemini (unhandled action): " + action + "\n");
-                                break;
-                        }
-                    }
+            if (responseObject.has("error")) {
+                 terminalOutput.append("Error from Gemini: " + responseObject.get("error").getAsString() + "\n");
+                 if(responseObject.has("original_response")){
+                    terminalOutput.append("Original response: " + responseObject.get("original_response").getAsString() + "\n");
+                 }
+                 return;
+            }
 
-                    if (changesMade) {
-                        calendarView.redraw();
+            if (!responseObject.has("actions")) {
+                throw new JsonSyntaxException("Response is missing 'actions' array.");
+            }
+
+            for (JsonElement actionElement : responseObject.getAsJsonArray("actions")) {
+                applyAction(actionElement.getAsJsonObject(), manager);
+            }
+
+        } catch (Exception e) {
+            terminalOutput.append("Error processing response: " + e.getMessage() + "\n");
+            terminalOutput.append("Original response: " + response + "\n");
+        }
+    }
+
+    /**
+     * 응답의 동작 하나를 저장소에 적용하고 결과를 터미널에 찍는다. FX 스레드에서 부른다.
+     */
+    private void applyAction(JsonObject actionObject, CalendarDataManager manager) {
+        String action = actionObject.get("action").getAsString();
+
+        switch (action) {
+            case "add_events": {
+                JsonArray eventsToAdd = actionObject.getAsJsonArray("events");
+                for (JsonElement eventEl : eventsToAdd) {
+                    JsonObject eventData = eventEl.getAsJsonObject();
+                    String title = eventData.get("title").getAsString();
+                    LocalDate date = LocalDate.parse(eventData.get("date").getAsString());
+                    String time = eventData.has("time") ? eventData.get("time").getAsString() : "";
+                    manager.addEventForDate(date, new Event(title, time));
+                    terminalOutput.append("Event added: '" + title + "' on " + date + "\n");
+                }
+                break;
+            }
+            case "complete_events": {
+                JsonArray eventsToComplete = actionObject.getAsJsonArray("events");
+                for (JsonElement eventEl : eventsToComplete) {
+                    JsonObject eventInfo = eventEl.getAsJsonObject();
+                    String title = eventInfo.get("title").getAsString();
+                    LocalDate date = LocalDate.parse(eventInfo.get("date").getAsString());
+                    // 'toggleEventCompletion' 메서드가 성공 여부를 boolean으로 반환하므로, 이를 활용해 더 정확한 피드백을 줄 수 있습니다.
+                    if (manager.toggleEventCompletion(date, title)) {
+                        terminalOutput.append("Event '" + title + "' on " + date + " status toggled.\n");
+                    } else {
+                        terminalOutput.append("Could not find event '" + title + "' on " + date + " to toggle.\n");
                     }
-                    
-                } catch (Exception e) {
-                    terminalOutput.appendText("Error processing response: " + e.getMessage() + "\n");
-                    terminalOutput.appendText("Original response: " + response + "\n");
                 }
-            });
-        });
+                break;
+            }
+            case "delete_events": {
+                JsonArray eventsToDelete = actionObject.getAsJsonArray("events");
+                for (JsonElement eventEl : eventsToDelete) {
+                    JsonObject eventInfo = eventEl.getAsJsonObject();
+                    String title = eventInfo.get("title").getAsString();
+                    LocalDate date = LocalDate.parse(eventInfo.get("date").getAsString());
+                    // 'deleteEventByTitle' 메서드도 성공 여부를 boolean으로 반환합니다.
+                    if (manager.deleteEventByTitle(date, title)) {
+                        terminalOutput.append("Event '" + title + "' on " + date + " deleted.\n");
+                    } else {
+                        terminalOutput.append("Could not find event '" + title + "' on " + date + " to delete.\n");
+                    }
+                }
+                break;
+            }
+            case "copy_events": {
+                LocalDate sourceDate = LocalDate.parse(actionObject.get("source_date").getAsString());
+                LocalDate destDate = LocalDate.parse(actionObject.get("destination_date").getAsString());
+                int count = manager.copyEvents(sourceDate, destDate);
+
+                if (count > 0) {
+                    terminalOutput.append(count + " event(s) copied from " + sourceDate + " to " + destDate + ".\n");
+                } else {
+                    terminalOutput.append("No events to copy from " + sourceDate + ".\n");
+                }
+                break;
+            }
+            default:
+                terminalOutput.append("Gemini (unhandled action): " + action + "\n");
+                break;
+        }
     }
 
 
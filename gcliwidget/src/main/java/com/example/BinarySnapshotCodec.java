@@ -0,0 +1,202 @@
+package com.example;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 캘린더 스냅샷의 바이너리 형식.
+ *
+ * <pre>
+ * header  : int magic "GCWS", short version
+ * strings : int count, { int byteLength, UTF-8 bytes }*
+ * days    : int count, { int epochDay, int eventCount, event* }*
+ * event   : byte flags, id (long,long | int string), int title string, time (short minuteOfDay | int string)
+ * </pre>
+ *
+ * 제목과 규격에 맞지 않는 id/시간 문자열은 문자열 테이블에 한 번만 저장한다.
+ * 읽을 때는 파일 전체를 FileChannel 로 힙 버퍼에 한 번에 읽는다. memory-map 하면 매핑이 GC 될 때까지
+ * 파일이 잡혀 있어 Windows 에서 같은 세그먼트를 다시 쓸 때(rename 으로 교체) 실패한다.
+ */
+public final class BinarySnapshotCodec {
+
+    private static final int MAGIC = 0x47435753; // "GCWS"
+    private static final short VERSION = 1;
+
+    private static final int FLAG_COMPLETED = 1;
+    private static final int FLAG_RAW_ID = 1 << 1;
+    private static final int FLAG_RAW_TIME = 1 << 2;
+
+    private static final short NO_TIME = -1;
+    private static final short BLANK_TIME = -2;
+    private static final int RAW_TIME = Integer.MIN_VALUE;
+
+    private static final String[] MINUTE_STRINGS = new String[24 * 60];
+
+    static {
+        for (int minute = 0; minute < MINUTE_STRINGS.length; minute++) {
+            MINUTE_STRINGS[minute] = String.format("%02d:%02d", minute / 60, minute % 60);
+        }
+    }
+
+    private BinarySnapshotCodec() {
+    }
+
+    public static void write(Path file, Map<LocalDate, List<Event>> snapshot) throws IOException {
+        Map<String, Integer> stringIndex = new HashMap<>();
+        List<String> strings = new ArrayList<>();
+
+        // 일정 영역을 먼저 메모리에 쓰면서 문자열 테이블을 채우고, 파일에는 테이블을 앞에 둔다.
+        ByteArrayOutputStream daysBytes = new ByteArrayOutputStream(1 << 16);
+        DataOutputStream days = new DataOutputStream(daysBytes);
+        int dayCount = 0;
+        for (Map.Entry<LocalDate, List<Event>> entry : snapshot.entrySet()) {
+            List<Event> events = entry.getValue();
+            if (events.isEmpty()) continue;
+            dayCount++;
+            days.writeInt((int) entry.getKey().toEpochDay());
+            days.writeInt(events.size());
+            for (Event event : events) {
+                UUID uuid = parseUuid(event.getId());
+                int minute = encodeMinute(event.getTime());
+                int flags = (event.isCompleted() ? FLAG_COMPLETED : 0)
+                        | (uuid == null ? FLAG_RAW_ID : 0)
+                        | (minute == RAW_TIME ? FLAG_RAW_TIME : 0);
+                days.writeByte(flags);
+                if (uuid != null) {
+                    days.writeLong(uuid.getMostSignificantBits());
+                    days.writeLong(uuid.getLeastSignificantBits());
+                } else {
+                    days.writeInt(intern(event.getId(), stringIndex, strings));
+                }
+                days.writeInt(intern(event.getTitle(), stringIndex, strings));
+                if (minute != RAW_TIME) {
+                    days.writeShort(minute);
+                } else {
+                    days.writeInt(intern(event.getTime(), stringIndex, strings));
+                }
+            }
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(strings.size());
+            for (String value : strings) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            out.writeInt(dayCount);
+            daysBytes.writeTo(out);
+        }
+    }
+
+    public static Map<LocalDate, List<Event>> read(Path file) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Calendar snapshot too large: " + file);
+            }
+            buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) break;
+            }
+        }
+        buffer.flip();
+        try {
+            return decode(buffer);
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated calendar snapshot: " + file, e);
+        }
+    }
+
+    private static Map<LocalDate, List<Event>> decode(ByteBuffer buffer) throws IOException {
+        if (buffer.getInt() != MAGIC) {
+            throw new IOException("Not a gcliwidget binary snapshot.");
+        }
+        short version = buffer.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported binary snapshot version: " + version);
+        }
+
+        String[] strings = new String[buffer.getInt()];
+        byte[] scratch = new byte[256];
+        for (int i = 0; i < strings.length; i++) {
+            int length = buffer.getInt();
+            if (scratch.length < length) scratch = new byte[Math.max(length, scratch.length * 2)];
+            buffer.get(scratch, 0, length);
+            strings[i] = new String(scratch, 0, length, StandardCharsets.UTF_8);
+        }
+
+        int dayCount = buffer.getInt();
+        Map<LocalDate, List<Event>> snapshot = new HashMap<>(Math.max(16, dayCount * 4 / 3 + 1));
+        for (int d = 0; d < dayCount; d++) {
+            LocalDate date = LocalDate.ofEpochDay(buffer.getInt());
+            int eventCount = buffer.getInt();
+            List<Event> events = new ArrayList<>(eventCount);
+            for (int e = 0; e < eventCount; e++) {
+                int flags = buffer.get();
+                String id = (flags & FLAG_RAW_ID) != 0
+                        ? strings[buffer.getInt()]
+                        : new UUID(buffer.getLong(), buffer.getLong()).toString();
+                String title = strings[buffer.getInt()];
+                String time = (flags & FLAG_RAW_TIME) != 0 ? strings[buffer.getInt()] : decodeMinute(buffer.getShort());
+                events.add(new Event(id, title, time, (flags & FLAG_COMPLETED) != 0));
+            }
+            snapshot.put(date, events);
+        }
+        return snapshot;
+    }
+
+    private static int intern(String value, Map<String, Integer> stringIndex, List<String> strings) {
+        return stringIndex.computeIfAbsent(nullToEmpty(value), key -> {
+            strings.add(key);
+            return strings.size() - 1;
+        });
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static UUID parseUuid(String id) {
+        if (id == null || id.length() != 36) return null;
+        try {
+            UUID uuid = UUID.fromString(id);
+            // 대소문자 등 표기가 달라지면 id 가 바뀌므로 원래 문자열로 되돌아올 때만 압축한다.
+            return uuid.toString().equals(id) ? uuid : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // 정확히 HH:mm 형식인 시간만 분 단위로 저장하고, 나머지는 문자열 그대로 둔다.
+    private static int encodeMinute(String time) {
+        if (time == null) return NO_TIME;
+        if (time.isEmpty()) return BLANK_TIME;
+        int minute = Event.parseMinuteOfDay(time);
+        return minute == Event.UNTIMED || minute == Event.INVALID_TIME ? RAW_TIME : minute;
+    }
+
+    private static String decodeMinute(short minute) {
+        if (minute == NO_TIME) return null;
+        if (minute == BLANK_TIME) return "";
+        return MINUTE_STRINGS[minute];
+    }
+}
@@ -0,0 +1,50 @@
+package com.example;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 저장소에서 일어난 변경 하나. 어느 날짜의 어느 일정이 어떻게 바뀌었는지를 담는다.
+ * MOVED 는 previousDate 에서 date 로 옮긴 것이고, BULK 는 한 날짜에 변경이 너무 많아 일정별로 나누지 않고
+ * "이 날짜를 통째로 다시 읽으라"는 뜻이다. BULK 의 eventId 는 null 이다.
+ */
+public record CalendarChange(Kind kind, LocalDate date, String eventId, LocalDate previousDate) {
+
+    public enum Kind { ADDED, UPDATED, REMOVED, MOVED, BULK }
+
+    // 한 묶음의 변경이 이보다 많으면 날짜별 BULK 로 줄여서 넘긴다.
+    static final int BULK_THRESHOLD = 256;
+
+    public CalendarChange(Kind kind, LocalDate date, String eventId) {
+        this(kind, date, eventId, null);
+    }
+
+    public static CalendarChange moved(LocalDate from, LocalDate to, String eventId) {
+        return new CalendarChange(Kind.MOVED, to, eventId, from);
+    }
+
+    /**
+     * 변경으로 목록이 바뀐 날짜들. 옮긴 일정은 원래 날짜도 포함한다.
+     */
+    public static Set<LocalDate> datesOf(List<CalendarChange> changes) {
+        Set<LocalDate> dates = new LinkedHashSet<>();
+        changes.forEach(change -> {
+            if (change.previousDate() != null) dates.add(change.previousDate());
+            dates.add(change.date());
+        });
+        return dates;
+    }
+
+    /**
+     * 변경이 BULK_THRESHOLD 보다 많으면 바뀐 날짜마다 BULK 하나로 줄인다. 받는 쪽은 일정별로 따라가는 대신 그 날짜들만 다시 읽으면 된다.
+     */
+    static List<CalendarChange> coalesce(List<CalendarChange> changes) {
+        if (changes.size() <= BULK_THRESHOLD) return changes;
+        List<CalendarChange> bulk = new ArrayList<>();
+        datesOf(changes).forEach(date -> bulk.add(new CalendarChange(Kind.BULK, date, null)));
+        return List.copyOf(bulk);
+    }
+}
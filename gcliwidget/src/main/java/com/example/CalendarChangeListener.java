@@ -0,0 +1,12 @@
+package com.example;
+
+import java.util.List;
+
+/**
+ * 캘린더 저장소의 변경 알림. 한 번의 변경 호출에서 생긴 변경들을 (종류, 날짜, 일정 id) 목록으로 넘겨준다.
+ * addChangeListener(listener) 로 붙이면 변경을 일으킨 스레드에서 저장소 잠금을 쥔 채로 호출되므로,
+ * 짧게 끝내고 저장소 잠금과 엇갈리는 잠금을 잡지 않는다. executor 를 주어 붙이면 잠금 밖에서, 몰려온 변경을 합쳐 한 번에 받는다.
+ */
+public interface CalendarChangeListener {
+    void onCalendarChanged(List<CalendarChange> changes);
+}
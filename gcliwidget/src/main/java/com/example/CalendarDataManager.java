@@ -1,47 +1,126 @@
 package com.example;
 
 import java.io.File;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
-import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
-import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
 import com.google.gson.JsonDeserializer;
 import com.google.gson.JsonSerializer;
-import com.google.gson.reflect.TypeToken;
 
+/**
+ * 캘린더 저장소. 쓰기는 이 객체의 잠금으로 한 줄로 세우고, 하루 목록은 바꿀 때마다 새 불변 목록으로 갈아 끼운다.
+ * 한 번 내준 목록과 일정 객체는 다시 고치지 않으므로, 다른 스레드가 들고 있어도 잠금 없이 읽을 수 있다.
+ * 일정을 고칠 때는 new Event(event) 로 사본을 만들어 updateEvent 에 넘긴다.
+ */
 public class CalendarDataManager {
 
     private static final String NOTES_FILE = System.getProperty("user.home") + File.separator + ".gcliwidget_calendar_notes.json";
+    // 로그에 이만큼 레코드가 쌓이면 백그라운드에서 월 세그먼트로 접는다.
+    private static final int COMPACTION_THRESHOLD = 200;
+    // 메모리에 올려 두는 월 수. 넘치면 가장 오래 안 본 달부터 내린다.
+    private static final int DEFAULT_MAX_RESIDENT_MONTHS = Integer.getInteger("gcliwidget.storage.maxResidentMonths", 24);
+    private static final int MIN_RESIDENT_MONTHS = 3;
+    private static final double MEMORY_PRESSURE_RATIO = 0.8;
     private static CalendarDataManager instance;
-    private Map<LocalDate, List<Event>> eventsData;
-    private final Gson gson;
 
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    // 메모리에 올라온 한 달치 일정. 디스크의 세그먼트 파일 하나와 대응한다.
+    private static class MonthSegment {
+        // 값은 불변 목록이다. 바꿀 때는 replaceDay 로 통째로 갈아 끼운다.
+        final Map<LocalDate, List<Event>> days;
+        // 날짜 -> 정규화한 제목 -> 그 제목의 일정들(목록 순서 유지). 달과 함께 올라오고 함께 내려간다.
+        final Map<LocalDate, Map<String, List<Event>>> titleIndex = new HashMap<>();
+        long lastAccess;
+        // 아직 세그먼트 파일에 접히지 않은 마지막 변경의 순번. 0 이면 디스크와 같아서 내려도 된다.
+        long unsyncedSeq;
+
+        MonthSegment(Map<LocalDate, List<Event>> days) {
+            this.days = days;
+        }
+    }
+
+    // id 로 일정 위치를 찾는 인덱스. 메모리에 올라온 달의 일정만 담는다.
+    private record EventLocation(LocalDate date, Event event) {}
+
+    private final Map<YearMonth, MonthSegment> residentMonths = new HashMap<>();
+    private final Map<String, EventLocation> idIndex = new HashMap<>();
+    private final Set<YearMonth> storedMonths;
+    private final MonthSegmentStore segmentStore;
+    private final Path notesFile;
+    private final CalendarJournal journal;
+    private final PersistenceWriter writer;
+    private long accessClock;
+    private int maxResidentMonths = DEFAULT_MAX_RESIDENT_MONTHS;
+    // 0 보다 크면 달을 내리지 않는다. 여러 달을 함께 고치는 동안 쓴다.
+    private int evictionHold;
+    // 내용이 바뀔 때마다 1씩 오른다. getAllEvents 스냅샷은 이 값이 같으면 그대로 다시 내준다.
+    private long version;
+    private Map<LocalDate, List<Event>> allEventsSnapshot;
+    private long allEventsSnapshotVersion = -1;
+    private final List<CalendarChangeListener> changeListeners = new CopyOnWriteArrayList<>();
+    // 지금 진행 중인 변경 호출에서 생긴 변경들. persist 에서 리스너에게 넘기고 비운다.
+    private final List<CalendarChange> pendingChanges = new ArrayList<>();
 
     private CalendarDataManager() {
-        // ... (생성자 수정 없음)
-        this.gson = new GsonBuilder()
-                .setPrettyPrinting()
+        this(Paths.get(NOTES_FILE));
+    }
+
+    CalendarDataManager(Path notesFile) {
+        this(notesFile, MonthSegmentStore.SnapshotFormat.fromSystemProperties());
+    }
+
+    CalendarDataManager(Path notesFile, MonthSegmentStore.SnapshotFormat snapshotFormat) {
+        this.notesFile = notesFile;
+        this.segmentStore = new MonthSegmentStore(notesFile, snapshotFormat, createGsonBuilder().setPrettyPrinting().create());
+        String baseName = notesFile.getFileName().toString().replaceFirst("\\.json$", "");
+        this.journal = new CalendarJournal(notesFile.resolveSibling(baseName + ".journal"), createGsonBuilder().create());
+        try {
+            segmentStore.migrateLegacySnapshot();
+        } catch (IOException e) {
+            System.err.println("Could not split the calendar snapshot into month segments: " + e.getMessage());
+            e.printStackTrace();
+        }
+        // 지난 실행에서 접히지 못한 로그를 먼저 세그먼트에 반영한 뒤, 어떤 달이 있는지만 읽어 둔다.
+        compact();
+        this.storedMonths = segmentStore.listMonths();
+        this.writer = new PersistenceWriter(journal, PersistenceWriter.Policy.fromSystemProperties(), COMPACTION_THRESHOLD, this::compact);
+    }
+
+    static GsonBuilder createGsonBuilder() {
+        return new GsonBuilder()
                 .registerTypeAdapter(LocalDate.class, (JsonSerializer<LocalDate>) (localDate, type, jsonSerializationContext) ->
                         localDate == null ? null : new com.google.gson.JsonPrimitive(localDate.format(DateTimeFormatter.ISO_LOCAL_DATE)))
                 .registerTypeAdapter(LocalDate.class, (JsonDeserializer<LocalDate>) (jsonElement, type, jsonDeserializationContext) ->
-                        jsonElement == null ? null : LocalDate.parse(jsonElement.getAsJsonPrimitive().getAsString(), DateTimeFormatter.ISO_LOCAL_DATE))
-                .create();
-        this.eventsData = loadNotes();
+                        jsonElement == null ? null : LocalDate.parse(jsonElement.getAsJsonPrimitive().getAsString(), DateTimeFormatter.ISO_LOCAL_DATE));
+    }
+
+    /**
+     * 저장소 파일 옆에 둘 보조 파일 경로. 예: ".notified.json" -> ~/.gcliwidget_calendar_notes.notified.json
+     */
+    Path siblingFile(String suffix) {
+        return notesFile.resolveSibling(notesFile.getFileName().toString().replaceFirst("\\.json$", "") + suffix);
     }
 
     public static synchronized CalendarDataManager getInstance() {
@@ -50,91 +129,529 @@ public class CalendarDataManager {
         }
         return instance;
     }
-    
-    // ... (getEventsForDate, addEventForDate, toggleEventCompletion 등 기존 메서드 수정 없음)
-    public List<Event> getEventsForDate(LocalDate date) { /* ... no changes ... */
-        List<Event> events = eventsData.getOrDefault(date, new ArrayList<>());
-        if (events.isEmpty()) return events;
-        return events.stream().sorted(Comparator.comparing(event -> { String timeStr = event.getTime(); if (timeStr == null || timeStr.isBlank()) return LocalTime.MIN; try { return LocalTime.parse(timeStr, TIME_FORMATTER); } catch (DateTimeParseException e) { return LocalTime.MAX; }})).collect(Collectors.toList());
+
+    // 하루 목록은 항상 시간순인 불변 목록이므로 그대로 돌려준다.
+    public synchronized List<Event> getEventsForDate(LocalDate date) {
+        return daysOf(date).getOrDefault(date, List.of());
+    }
+
+    /**
+     * 저장소 내용의 버전. 일정이 바뀔 때마다 올라가므로 캐시 무효화에 쓸 수 있다.
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+
+    private static final Comparator<Event> BY_TIME = Comparator.comparingInt(Event::getMinuteOfDay);
+
+    // 같은 시간대의 일정 뒤에 넣어서, 같은 시간끼리는 추가된 순서를 지킨다.
+    private static void insertSorted(List<Event> events, Event event) {
+        int minute = event.getMinuteOfDay();
+        int low = 0;
+        int high = events.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (events.get(mid).getMinuteOfDay() <= minute) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        events.add(low, event);
+    }
+
+    // 하루 목록을 새 목록으로 갈아 끼우고 제목 인덱스와 버전을 맞춘다. id 인덱스는 부르는 쪽에서 고친다.
+    private void replaceDay(LocalDate date, List<Event> events) {
+        Map<LocalDate, List<Event>> days = daysOf(date);
+        if (events.isEmpty()) {
+            days.remove(date);
+        } else {
+            days.put(date, List.copyOf(events));
+        }
+        reindexTitles(date);
+        version++;
+    }
+
+    private List<Event> editableDay(LocalDate date) {
+        return new ArrayList<>(daysOf(date).getOrDefault(date, List.of()));
+    }
+
+    public synchronized void addEventForDate(LocalDate date, Event event) {
+        // 부르는 쪽이 나중에 객체를 고쳐도 저장된 일정이 바뀌지 않도록 사본을 넣는다.
+        Event stored = new Event(event);
+        List<Event> dayEvents = editableDay(date);
+        insertSorted(dayEvents, stored);
+        replaceDay(date, dayEvents);
+        idIndex.put(stored.getId(), new EventLocation(date, stored));
+        recordChange(CalendarChange.Kind.ADDED, date, stored.getId());
+        persist(date);
     }
-    public void addEventForDate(LocalDate date, Event event) { eventsData.computeIfAbsent(date, k -> new ArrayList<>()).add(event); saveNotes(); }
-    public boolean toggleEventCompletion(LocalDate date, String eventTitle) { /* ... no changes ... */
-        if (eventsData.containsKey(date)) { Optional<Event> eventToToggle = eventsData.get(date).stream().filter(event -> event.getTitle().equalsIgnoreCase(eventTitle)).findFirst(); if (eventToToggle.isPresent()) { Event event = eventToToggle.get(); event.setCompleted(!event.isCompleted()); saveNotes(); return true; } } return false;
+    public synchronized boolean toggleEventCompletion(LocalDate date, String eventTitle) {
+        List<Event> matches = eventsWithTitle(date, eventTitle);
+        if (matches.isEmpty()) return false;
+        Event current = matches.get(0);
+        Event toggled = new Event(current);
+        toggled.setCompleted(!current.isCompleted());
+        List<Event> dayEvents = editableDay(date);
+        dayEvents.set(dayEvents.indexOf(current), toggled);
+        replaceDay(date, dayEvents);
+        idIndex.put(toggled.getId(), new EventLocation(date, toggled));
+        recordChange(CalendarChange.Kind.UPDATED, date, toggled.getId());
+        persist(date);
+        return true;
     }
 
     // ---▼▼▼ [수정] 일정 복사 메서드 추가 ▼▼▼---
-    public int copyEvents(LocalDate sourceDate, LocalDate destinationDate) {
+    public synchronized int copyEvents(LocalDate sourceDate, LocalDate destinationDate) {
         List<Event> sourceEvents = getEventsForDate(sourceDate);
         if (sourceEvents.isEmpty()) {
             return 0;
         }
 
-        List<Event> destinationEvents = eventsData.computeIfAbsent(destinationDate, k -> new ArrayList<>());
+        List<Event> destinationEvents = editableDay(destinationDate);
         int count = 0;
         for (Event eventToCopy : sourceEvents) {
             // 새로운 Event 객체를 만들어 ID가 중복되지 않도록 함
             Event newEvent = new Event(eventToCopy.getTitle(), eventToCopy.getTime());
             // 복사된 일정은 항상 '미완료' 상태로 시작
             newEvent.setCompleted(false);
-            destinationEvents.add(newEvent);
+            insertSorted(destinationEvents, newEvent);
+            idIndex.put(newEvent.getId(), new EventLocation(destinationDate, newEvent));
+            recordChange(CalendarChange.Kind.ADDED, destinationDate, newEvent.getId());
             count++;
         }
-        saveNotes();
+        replaceDay(destinationDate, destinationEvents);
+        persist(destinationDate);
         return count;
     }
     // ---▲▲▲ [수정] ▲▲▲---
 
 
-    public boolean deleteEventByTitle(LocalDate date, String eventTitle) {
-        if (eventsData.containsKey(date)) {
-            boolean removed = eventsData.get(date).removeIf(event -> event.getTitle().equalsIgnoreCase(eventTitle));
-            if (removed) { if (eventsData.get(date).isEmpty()) { eventsData.remove(date); } saveNotes(); return true; }
+    public synchronized boolean deleteEventByTitle(LocalDate date, String eventTitle) {
+        List<Event> matches = eventsWithTitle(date, eventTitle);
+        if (matches.isEmpty()) return false;
+        List<Event> dayEvents = editableDay(date);
+        for (Event event : matches) {
+            dayEvents.remove(event);
+            unindexId(date, event);
+            recordChange(CalendarChange.Kind.REMOVED, date, event.getId());
+        }
+        replaceDay(date, dayEvents);
+        persist(date);
+        return true;
+    }
+    public synchronized void deleteAllEventsForDate(LocalDate date) {
+        List<Event> removed = daysOf(date).get(date);
+        if (removed != null) {
+            removed.forEach(event -> {
+                unindexId(date, event);
+                recordChange(CalendarChange.Kind.REMOVED, date, event.getId());
+            });
+            replaceDay(date, List.of());
+            persist(date);
+        }
+    }
+
+    private List<Event> eventsWithTitle(LocalDate date, String eventTitle) {
+        Map<String, List<Event>> titles = segment(YearMonth.from(date)).titleIndex.get(date);
+        if (titles == null) return List.of();
+        return titles.getOrDefault(normalizeTitle(eventTitle), List.of());
+    }
+
+    private static String normalizeTitle(String title) {
+        return title == null ? "" : title.strip().toLowerCase(Locale.ROOT);
+    }
+
+    // 하루치 제목 인덱스를 그 날의 목록에서 다시 만든다. 하루 일정 수에만 비례한다.
+    private void reindexTitles(LocalDate date) {
+        MonthSegment segment = segment(YearMonth.from(date));
+        List<Event> events = segment.days.get(date);
+        if (events == null || events.isEmpty()) {
+            segment.titleIndex.remove(date);
+            return;
+        }
+        Map<String, List<Event>> titles = new HashMap<>();
+        for (Event event : events) {
+            titles.computeIfAbsent(normalizeTitle(event.getTitle()), k -> new ArrayList<>(1)).add(event);
+        }
+        segment.titleIndex.put(date, titles);
+    }
+
+    private void unindexId(LocalDate date, Event event) {
+        EventLocation location = idIndex.get(event.getId());
+        if (location != null && location.date().equals(date)) {
+            idIndex.remove(event.getId());
+        }
+    }
+
+    // 해당 날짜가 속한 달을 필요할 때 디스크에서 올린다.
+    private Map<LocalDate, List<Event>> daysOf(LocalDate date) {
+        return segment(YearMonth.from(date)).days;
+    }
+
+    private MonthSegment segment(YearMonth month) {
+        MonthSegment segment = residentMonths.get(month);
+        if (segment == null) {
+            Map<LocalDate, List<Event>> days = new HashMap<>();
+            if (storedMonths.contains(month)) {
+                try {
+                    days = segmentStore.readMonth(month);
+                } catch (IOException e) {
+                    System.err.println("Could not load calendar month " + month + ": " + e.getMessage());
+                    e.printStackTrace();
+                }
+            }
+            // 예전 파일의 목록은 추가 순서대로 저장되어 있으므로 올릴 때 한 번만 정렬하고 불변 목록으로 바꾼다.
+            days.replaceAll((date, events) -> {
+                events.sort(BY_TIME);
+                return List.copyOf(events);
+            });
+            segment = new MonthSegment(days);
+            residentMonths.put(month, segment);
+            for (Map.Entry<LocalDate, List<Event>> entry : days.entrySet()) {
+                entry.getValue().forEach(event -> idIndex.put(event.getId(), new EventLocation(entry.getKey(), event)));
+            }
+            for (LocalDate date : new ArrayList<>(days.keySet())) {
+                reindexTitles(date);
+            }
+            evictColdMonths(month);
+        }
+        segment.lastAccess = ++accessClock;
+        return segment;
+    }
+
+    // 오래 안 본 달부터 내린다. 로그에만 있고 아직 세그먼트에 접히지 않은 달은 내리지 않는다.
+    private void evictColdMonths(YearMonth keep) {
+        if (evictionHold > 0) return;
+        Runtime runtime = Runtime.getRuntime();
+        boolean memoryPressure = (runtime.totalMemory() - runtime.freeMemory()) > runtime.maxMemory() * MEMORY_PRESSURE_RATIO;
+        int limit = memoryPressure ? MIN_RESIDENT_MONTHS : Math.max(MIN_RESIDENT_MONTHS, maxResidentMonths);
+        if (residentMonths.size() <= limit) return;
+
+        List<Map.Entry<YearMonth, MonthSegment>> candidates = residentMonths.entrySet().stream()
+                .filter(entry -> !entry.getKey().equals(keep) && entry.getValue().unsyncedSeq == 0)
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+                .collect(Collectors.toList());
+        for (Map.Entry<YearMonth, MonthSegment> candidate : candidates) {
+            if (residentMonths.size() <= limit) break;
+            residentMonths.remove(candidate.getKey());
+            candidate.getValue().days.forEach((date, events) -> events.forEach(event -> unindexId(date, event)));
+        }
+    }
+
+    // 변경된 날짜의 현재 목록을 저장 스레드에 넘긴다. 목록과 일정은 불변이므로 복사하지 않는다.
+    // 실제 기록은 배치 창마다 한 번 일어난다.
+    private void persist(LocalDate... dates) {
+        Map<LocalDate, List<Event>> days = new HashMap<>();
+        for (LocalDate date : dates) {
+            days.put(date, daysOf(date).getOrDefault(date, List.of()));
+        }
+        long seq = writer.markDirty(days);
+        for (LocalDate date : dates) {
+            YearMonth month = YearMonth.from(date);
+            segment(month).unsyncedSeq = seq;
+            storedMonths.add(month);
+        }
+        List<CalendarChange> changes = CalendarChange.coalesce(List.copyOf(pendingChanges));
+        pendingChanges.clear();
+        for (CalendarChangeListener listener : changeListeners) {
+            try {
+                listener.onCalendarChanged(changes);
+            } catch (RuntimeException e) {
+                System.err.println("Calendar change listener failed: " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private void recordChange(CalendarChange.Kind kind, LocalDate date, String eventId) {
+        pendingChanges.add(new CalendarChange(kind, date, eventId));
+    }
+
+    /**
+     * 변경을 일으킨 스레드에서 저장소 잠금을 쥔 채로 바로 알린다. 짧게 끝나는 리스너에만 쓴다.
+     */
+    public void addChangeListener(CalendarChangeListener listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * executor 에서 알린다. 앞선 알림이 아직 전달되지 않았으면 새 변경을 거기에 붙여, 몰려온 변경을 한 번에 넘긴다.
+     * 저장소 잠금 밖에서 불리므로 리스너 안에서 저장소를 읽어도 된다.
+     */
+    public void addChangeListener(CalendarChangeListener listener, Executor executor) {
+        changeListeners.add(new CoalescingDelivery(listener, executor));
+    }
+
+    /**
+     * 리스너를 뗀다. executor 로 이미 보낸 알림은 뗀 뒤에도 한 번 올 수 있다.
+     */
+    public void removeChangeListener(CalendarChangeListener listener) {
+        changeListeners.removeIf(registered -> registered == listener
+                || (registered instanceof CoalescingDelivery delivery && delivery.listener == listener));
+    }
+
+    // 저장소 잠금 안에서는 쌓기만 하고, 전달이 예약되어 있지 않을 때만 executor 에 하나 넣는다.
+    private static final class CoalescingDelivery implements CalendarChangeListener {
+        private final CalendarChangeListener listener;
+        private final Executor executor;
+        private final List<CalendarChange> pending = new ArrayList<>();
+        private boolean scheduled;
+
+        CoalescingDelivery(CalendarChangeListener listener, Executor executor) {
+            this.listener = listener;
+            this.executor = executor;
+        }
+
+        @Override
+        public void onCalendarChanged(List<CalendarChange> changes) {
+            synchronized (this) {
+                pending.addAll(changes);
+                if (scheduled) return;
+                scheduled = true;
+            }
+            try {
+                executor.execute(this::deliver);
+            } catch (RejectedExecutionException e) {
+                // executor 가 멈췄으면 받을 쪽도 없다.
+                synchronized (this) {
+                    pending.clear();
+                    scheduled = false;
+                }
+            }
+        }
+
+        private void deliver() {
+            List<CalendarChange> batch;
+            synchronized (this) {
+                batch = CalendarChange.coalesce(List.copyOf(pending));
+                pending.clear();
+                scheduled = false;
+            }
+            try {
+                listener.onCalendarChanged(batch);
+            } catch (RuntimeException e) {
+                System.err.println("Calendar change listener failed: " + e.getMessage());
+                e.printStackTrace();
+            }
         }
-        return false;
     }
-    public void deleteAllEventsForDate(LocalDate date) {
-        if (eventsData.containsKey(date)) { eventsData.remove(date); saveNotes(); }
+
+    /**
+     * 아직 기록되지 않은 변경을 모두 로그에 내려쓴다. 앱 종료 시 호출한다.
+     */
+    public void flush() {
+        writer.flush();
     }
 
-    private Map<LocalDate, List<Event>> loadNotes() { /* ... no changes ... */
-        try (FileReader reader = new FileReader(NOTES_FILE)) { Type type = new TypeToken<HashMap<LocalDate, List<Event>>>() {}.getType(); Map<LocalDate, List<Event>> loadedNotes = gson.fromJson(reader, type); if (loadedNotes == null) return new HashMap<>(); loadedNotes.values().forEach(eventList -> eventList.forEach(Event::ensureId)); return loadedNotes; } catch (IOException e) { return new HashMap<>(); }
+    /**
+     * 남은 변경을 기록하고 저장 스레드를 멈춘다.
+     */
+    public void close() {
+        writer.close();
     }
-    private void saveNotes() { /* ... no changes ... */
-        try (FileWriter writer = new FileWriter(NOTES_FILE)) { gson.toJson(eventsData, writer); } catch (IOException e) { e.printStackTrace(); }
+
+    // 로그를 넘기고(.old) 그 내용을 해당 월 세그먼트에 접는다. 생성자와 저장 스레드에서만 실행된다.
+    private void compact() {
+        long coveredSeq = writer == null ? 0 : writer.getCommittedSeq();
+        try {
+            if (journal.hasRotated()) {
+                segmentStore.applyDays(journal.readRotated());
+                journal.deleteRotated();
+            }
+            if (journal.rotate()) {
+                segmentStore.applyDays(journal.readRotated());
+                journal.deleteRotated();
+            }
+        } catch (IOException e) {
+            System.err.println("Calendar journal compaction failed: " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
+        markCompacted(coveredSeq);
     }
-    public void deleteEvent(LocalDate date, String eventId) { /* ... no changes ... */
-        if (eventsData.containsKey(date)) { eventsData.get(date).removeIf(event -> event.getId().equals(eventId)); if (eventsData.get(date).isEmpty()) eventsData.remove(date); saveNotes(); }
+
+    private synchronized void markCompacted(long coveredSeq) {
+        residentMonths.values().forEach(segment -> {
+            if (segment.unsyncedSeq != 0 && segment.unsyncedSeq <= coveredSeq) {
+                segment.unsyncedSeq = 0;
+            }
+        });
+    }
+
+    public synchronized void deleteEvent(LocalDate date, String eventId) {
+        List<Event> dayEvents = editableDay(date);
+        EventLocation location = idIndex.get(eventId);
+        if (location == null || !location.date().equals(date) || !dayEvents.remove(location.event())) return;
+        idIndex.remove(eventId);
+        replaceDay(date, dayEvents);
+        recordChange(CalendarChange.Kind.REMOVED, date, eventId);
+        persist(date);
+    }
+    public synchronized void updateEvent(LocalDate date, Event updatedEvent) {
+        List<Event> dayEvents = editableDay(date);
+        EventLocation location = idIndex.get(updatedEvent.getId());
+        if (location == null || !location.date().equals(date)) return;
+        // 시간이 바뀌었을 수 있으므로 뺐다가 제자리에 다시 넣는다.
+        if (!dayEvents.remove(location.event())) return;
+        Event stored = new Event(updatedEvent);
+        insertSorted(dayEvents, stored);
+        replaceDay(date, dayEvents);
+        idIndex.put(stored.getId(), new EventLocation(date, stored));
+        recordChange(CalendarChange.Kind.UPDATED, date, stored.getId());
+        persist(date);
+    }
+    public synchronized boolean moveEvent(String eventId, LocalDate newDate) {
+        return moveEvents(List.of(eventId), newDate) > 0;
+    }
+
+    /**
+     * 여러 일정을 newDate 로 옮긴다. 원래 날짜들과 새 날짜의 목록을 함께 바꾸고 한 번에 기록하므로,
+     * 로그에는 한 레코드로 남아 중간에 꺼져도 일정이 사라지거나 두 번 생기지 않는다. 변경 알림도 한 번만 나간다.
+     * @return 실제로 옮긴 일정 수. 없는 id 와 이미 newDate 에 있는 일정은 건너뛴다.
+     */
+    public synchronized int moveEvents(Collection<String> eventIds, LocalDate newDate) {
+        // 옮기는 도중 다른 달을 올리다가 이미 고친 달이 내려가지 않도록, 끝날 때까지 내리지 않는다.
+        evictionHold++;
+        try {
+            Map<LocalDate, List<Event>> touched = new LinkedHashMap<>();
+            List<Event> moved = new ArrayList<>();
+            for (String eventId : new LinkedHashSet<>(eventIds)) {
+                Optional<Map.Entry<LocalDate, Event>> found = findDateAndEvent(eventId);
+                if (found.isEmpty() || found.get().getKey().equals(newDate)) continue;
+                LocalDate oldDate = found.get().getKey();
+                Event event = found.get().getValue();
+                if (!touched.computeIfAbsent(oldDate, this::editableDay).remove(event)) continue;
+                pendingChanges.add(CalendarChange.moved(oldDate, newDate, eventId));
+                moved.add(event);
+            }
+            if (moved.isEmpty()) return 0;
+
+            // 저장된 일정은 불변이므로 객체를 그대로 새 날짜로 옮긴다.
+            List<Event> target = touched.computeIfAbsent(newDate, this::editableDay);
+            for (Event event : moved) {
+                insertSorted(target, event);
+                idIndex.put(event.getId(), new EventLocation(newDate, event));
+            }
+            touched.forEach(this::replaceDay);
+            persist(touched.keySet().toArray(new LocalDate[0]));
+            return moved.size();
+        } finally {
+            evictionHold--;
+        }
     }
-    public void updateEvent(LocalDate date, Event updatedEvent) { /* ... no changes ... */
-        if (eventsData.containsKey(date)) { List<Event> dayEvents = eventsData.get(date); for (int i = 0; i < dayEvents.size(); i++) { if (dayEvents.get(i).getId().equals(updatedEvent.getId())) { dayEvents.set(i, updatedEvent); saveNotes(); return; } } }
+    // id 인덱스에서 먼저 찾고, 없을 때만 아직 안 올라온 달을 하나씩 올려 가며 찾는다.
+    private Optional<Map.Entry<LocalDate, Event>> findDateAndEvent(String eventId) {
+        EventLocation location = idIndex.get(eventId);
+        if (location == null) {
+            List<YearMonth> coldMonths = new ArrayList<>(storedMonths);
+            coldMonths.removeAll(residentMonths.keySet());
+            for (YearMonth month : coldMonths) {
+                segment(month);
+                location = idIndex.get(eventId);
+                if (location != null) break;
+            }
+        }
+        return location == null ? Optional.empty() : Optional.of(Map.entry(location.date(), location.event()));
     }
-    public void moveEvent(String eventId, LocalDate newDate) { /* ... no changes ... */
-        findDateAndEvent(eventId).ifPresent(pair -> { LocalDate oldDate = pair.getKey(); Event eventToMove = pair.getValue(); deleteEvent(oldDate, eventId); addEventForDate(newDate, eventToMove); });
+
+    /**
+     * 모든 달을 합친 읽기 전용 스냅샷을 돌려준다. 돌려준 뒤의 변경은 반영되지 않으므로 다른 스레드에서 마음대로 순회해도 된다.
+     * 버전이 그대로면 지난번 스냅샷을 다시 내준다.
+     */
+    public synchronized Map<LocalDate, List<Event>> getAllEvents() {
+        if (allEventsSnapshot == null || allEventsSnapshotVersion != version) {
+            Map<LocalDate, List<Event>> allEvents = new HashMap<>();
+            Set<YearMonth> months = new HashSet<>(storedMonths);
+            months.addAll(residentMonths.keySet());
+            for (YearMonth month : months) {
+                allEvents.putAll(segment(month).days);
+            }
+            allEventsSnapshot = Collections.unmodifiableMap(allEvents);
+            allEventsSnapshotVersion = version;
+        }
+        return allEventsSnapshot;
     }
-    private Optional<Map.Entry<LocalDate, Event>> findDateAndEvent(String eventId) { /* ... no changes ... */
-        return eventsData.entrySet().stream().flatMap(entry -> entry.getValue().stream().filter(event -> eventId.equals(event.getId())).map(event -> Map.entry(entry.getKey(), event))).findFirst();
+
+    /**
+     * 저장된 달과 메모리에 올라온 달.
+     */
+    public synchronized Set<YearMonth> getMonths() {
+        Set<YearMonth> months = new HashSet<>(storedMonths);
+        months.addAll(residentMonths.keySet());
+        return months;
     }
-     public Map<LocalDate, List<Event>> getAllEvents() {
-        return this.eventsData;
+
+    /**
+     * 그 달의 일정을 메모리에 올리지 않고 읽는다. 올라와 있으면 그 목록을, 아니면 세그먼트 파일을 잠금 밖에서 읽는다.
+     * 파일 쪽은 읽기만 하므로(형식 변환도 하지 않는다) 저장 스레드의 압축과 겹쳐도 세그먼트를 덮어쓰지 않는다.
+     * 파일을 읽는 사이에 바뀐 날짜는 변경 알림으로 따로 받아야 한다.
+     */
+    public Map<LocalDate, List<Event>> peekMonth(YearMonth month) throws IOException {
+        synchronized (this) {
+            MonthSegment segment = residentMonths.get(month);
+            if (segment != null) return Map.copyOf(segment.days);
+            if (!storedMonths.contains(month)) return Map.of();
+        }
+        return segmentStore.peekMonth(month);
     }
-        public String getScheduleAsTextContext() {
-        if (eventsData == null || eventsData.isEmpty()) {
-            return "No scheduled events.";
+
+    /**
+     * from ~ to (양 끝 포함) 기간에 걸친 달만 올려서 날짜순 읽기 전용 스냅샷으로 돌려준다.
+     */
+    public synchronized Map<LocalDate, List<Event>> getEventsInRange(LocalDate from, LocalDate to) {
+        Map<LocalDate, List<Event>> rangeEvents = new TreeMap<>();
+        for (YearMonth month = YearMonth.from(from); !month.isAfter(YearMonth.from(to)); month = month.plusMonths(1)) {
+            if (!storedMonths.contains(month) && !residentMonths.containsKey(month)) continue;
+            segment(month).days.forEach((date, events) -> {
+                if (!date.isBefore(from) && !date.isAfter(to)) {
+                    rangeEvents.put(date, events);
+                }
+            });
         }
+        return Collections.unmodifiableMap(rangeEvents);
+    }
 
-        StringBuilder contextBuilder = new StringBuilder();
-        eventsData.keySet().stream().sorted().forEach(date -> {
-            List<Event> events = getEventsForDate(date);
-            if (!events.isEmpty()) {
-                contextBuilder.append(date.format(DateTimeFormatter.ISO_LOCAL_DATE)).append("\n");
-                events.forEach(event -> {
-                    String status = event.isCompleted() ? "[x]" : "[ ]";
-                    String timeInfo = (event.getTime() != null && !event.getTime().isBlank()) ? " (" + event.getTime() + ")" : "";
-                    contextBuilder.append(String.format("- %s %s%s\n", status, event.getTitle(), timeInfo));
-                });
+    /**
+     * 인덱스를 주 데이터에서 새로 만든 것과 비교하고, 하루 목록이 시간순인지 확인한다. 어긋나면 IllegalStateException. 테스트용.
+     */
+    synchronized void verifyIndexes() {
+        Map<String, EventLocation> expectedIds = new HashMap<>();
+        residentMonths.values().forEach(segment -> segment.days.forEach((date, events) ->
+                events.forEach(event -> expectedIds.put(event.getId(), new EventLocation(date, event)))));
+        if (expectedIds.size() != idIndex.size()) {
+            throw new IllegalStateException("id index has " + idIndex.size() + " entries, expected " + expectedIds.size());
+        }
+        expectedIds.forEach((id, expected) -> {
+            EventLocation actual = idIndex.get(id);
+            if (actual == null || !actual.date().equals(expected.date()) || actual.event() != expected.event()) {
+                throw new IllegalStateException("id index drifted for " + id + ": " + actual + " != " + expected);
+            }
+        });
+        residentMonths.forEach((month, segment) -> {
+            if (!segment.titleIndex.keySet().equals(segment.days.keySet())) {
+                throw new IllegalStateException("title index dates drifted in " + month);
             }
+            segment.days.forEach((date, events) -> {
+                for (int i = 1; i < events.size(); i++) {
+                    if (events.get(i - 1).getMinuteOfDay() > events.get(i).getMinuteOfDay()) {
+                        throw new IllegalStateException("events on " + date + " are out of time order");
+                    }
+                }
+                Map<String, List<Event>> expectedTitles = new HashMap<>();
+                events.forEach(event -> expectedTitles.computeIfAbsent(normalizeTitle(event.getTitle()), k -> new ArrayList<>()).add(event));
+                if (!expectedTitles.equals(segment.titleIndex.get(date))) {
+                    throw new IllegalStateException("title index drifted on " + date);
+                }
+            });
         });
+    }
+
+    void setMaxResidentMonths(int maxResidentMonths) {
+        this.maxResidentMonths = maxResidentMonths;
+    }
 
-        return contextBuilder.toString();
+    synchronized int getResidentMonthCount() {
+        return residentMonths.size();
     }
-}
\ No newline at end of file
+}
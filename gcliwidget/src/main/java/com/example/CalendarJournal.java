@@ -0,0 +1,161 @@
+package com.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+
+/**
+ * 캘린더 변경분을 한 줄짜리 레코드로 이어 붙이는 append-only 로그.
+ * 레코드는 "날짜 -> 그 날의 전체 일정 목록"을 담기 때문에 같은 레코드를 여러 번 재생해도 결과가 같다.
+ * 빈 목록은 해당 날짜가 삭제되었다는 뜻이다.
+ */
+public class CalendarJournal {
+
+    private static class JournalRecord {
+        Map<LocalDate, List<Event>> days;
+
+        JournalRecord(Map<LocalDate, List<Event>> days) {
+            this.days = days;
+        }
+    }
+
+    private final Path journalFile;
+    private final Path rotatedFile;
+    private final Gson gson;
+    private int recordCount;
+
+    public CalendarJournal(Path journalFile, Gson gson) {
+        this.journalFile = journalFile;
+        this.rotatedFile = journalFile.resolveSibling(journalFile.getFileName() + ".old");
+        this.gson = gson;
+    }
+
+    public synchronized void append(Map<LocalDate, List<Event>> days, boolean fsync) throws IOException {
+        ByteBuffer line = ByteBuffer.wrap((gson.toJson(new JournalRecord(days)) + "\n").getBytes(StandardCharsets.UTF_8));
+        try (FileChannel channel = FileChannel.open(journalFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            while (line.hasRemaining()) {
+                channel.write(line);
+            }
+            if (fsync) {
+                channel.force(false);
+            }
+        }
+        recordCount++;
+    }
+
+    public synchronized int getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * 현재 로그를 .old 로 넘기고 새 로그를 시작한다. 아직 접히지 않은 .old 가 남아 있으면 아무것도 하지 않는다.
+     */
+    public synchronized boolean rotate() throws IOException {
+        if (Files.exists(rotatedFile) || !Files.exists(journalFile)) {
+            return false;
+        }
+        Files.move(journalFile, rotatedFile, StandardCopyOption.ATOMIC_MOVE);
+        recordCount = 0;
+        return true;
+    }
+
+    public boolean hasRotated() {
+        return Files.exists(rotatedFile);
+    }
+
+    public void deleteRotated() throws IOException {
+        Files.deleteIfExists(rotatedFile);
+    }
+
+    /**
+     * 넘겨진 로그(.old)를 읽어 날짜별 마지막 상태로 합친다. 빈 목록은 그 날짜가 삭제되었다는 뜻이다.
+     */
+    public Map<LocalDate, List<Event>> readRotated() {
+        Map<LocalDate, List<Event>> days = new LinkedHashMap<>();
+        replayFile(rotatedFile, days);
+        return days;
+    }
+
+    private int replayFile(Path file, Map<LocalDate, List<Event>> target) {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        List<String> lines;
+        try {
+            lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return 0;
+        }
+        int lastLine = lines.size() - 1;
+        while (lastLine >= 0 && lines.get(lastLine).isBlank()) lastLine--;
+        int applied = 0;
+        int corrupt = 0;
+        for (int i = 0; i <= lastLine; i++) {
+            String line = lines.get(i);
+            if (line.isBlank()) continue;
+            JournalRecord record;
+            try {
+                record = gson.fromJson(line, JournalRecord.class);
+            } catch (JsonParseException | DateTimeException e) {
+                if (i == lastLine) {
+                    // 쓰다가 끊긴 마지막 줄은 버린다. 그 앞까지의 기록은 온전하다.
+                    System.err.println("Ignoring torn journal record in " + file.getFileName() + ": " + e.getMessage());
+                    truncateTo(file, lines.subList(0, i));
+                    break;
+                }
+                // 중간 줄이 깨진 것은 끊긴 쓰기가 아니다. 그 줄만 건너뛰고 뒤의 기록은 그대로 재생한다.
+                System.err.println("Skipping corrupt journal record at line " + (i + 1) + " of " + file.getFileName() + ": " + e.getMessage());
+                corrupt++;
+                continue;
+            }
+            if (record == null || record.days == null) continue;
+            record.days.forEach((date, events) -> {
+                List<Event> dayEvents = events == null ? List.of() : events;
+                dayEvents.forEach(Event::ensureId);
+                target.put(date, dayEvents);
+            });
+            applied++;
+        }
+        if (corrupt > 0) {
+            preserveCorrupt(file);
+        }
+        return applied;
+    }
+
+    // 접고 나면 로그는 지워지므로, 깨진 줄을 손으로 살릴 수 있게 원본을 .corrupt 로 남겨 둔다.
+    private void preserveCorrupt(Path file) {
+        Path copy = file.resolveSibling(file.getFileName() + ".corrupt");
+        try {
+            Files.copy(file, copy, StandardCopyOption.REPLACE_EXISTING);
+            System.err.println("Kept a copy of the damaged journal at " + copy);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // 끊긴 꼬리를 잘라내지 않으면 다음 append 가 깨진 줄 뒤에 붙어 함께 버려진다.
+    private void truncateTo(Path file, List<String> validLines) {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.write(tempFile, validLines, StandardCharsets.UTF_8);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -5,10 +5,15 @@ import java.time.LocalDate;
 import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.time.format.TextStyle;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.control.Alert;
@@ -19,8 +24,10 @@ import javafx.scene.control.CheckBox;
 import javafx.scene.control.ContextMenu;
 import javafx.scene.control.Dialog;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.MenuItem;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.SelectionMode;
 import javafx.scene.control.SeparatorMenuItem;
 import javafx.scene.control.TextField;
 import javafx.scene.input.ClipboardContent;
@@ -45,11 +52,25 @@ public class CalendarView extends VBox {
     private final GridPane calendarGrid;
     private final Label monthTitle;
     private final CalendarDataManager dataManager;
+    private final MonthModelCache monthModels;
+    // 6주 x 7일 칸. 한 번 만들어 두고 달을 넘길 때는 날짜만 바꿔 다시 쓴다.
+    private final DayCell[] dayCells = new DayCell[MonthModel.SLOT_COUNT];
+    private final Map<LocalDate, DayCell> visibleCells = new HashMap<>();
+    // 지금 칸에 묶여 있는 달. 모델을 기다리는 동안에는 currentYearMonth 와 다를 수 있다.
+    private YearMonth displayedMonth;
+    // 날짜만 있는 임시 모델을 보여 주는 중이면 true.
+    private boolean displayedSkeleton;
 
     private static final DataFormat EVENT_DATA_FORMAT = new DataFormat("com.example.event");
+    private static final double EVENT_ROW_HEIGHT = 26;
 
     public CalendarView(LocalDate initialDate) {
-        this.dataManager = CalendarDataManager.getInstance();
+        this(initialDate, CalendarDataManager.getInstance());
+    }
+
+    CalendarView(LocalDate initialDate, CalendarDataManager dataManager) {
+        this.dataManager = dataManager;
+        this.monthModels = new MonthModelCache(dataManager);
         this.currentYearMonth = YearMonth.from(initialDate);
         this.monthTitle = new Label();
 
@@ -64,9 +85,15 @@ public class CalendarView extends VBox {
         calendarGrid.setHgap(5);
         calendarGrid.setVgap(5);
         setupGridConstraints(calendarGrid, 6, 7);
+        for (int slot = 0; slot < dayCells.length; slot++) {
+            dayCells[slot] = new DayCell();
+            calendarGrid.add(dayCells[slot].cellBox, slot % 7, slot / 7);
+        }
 
         this.getChildren().addAll(header, dayOfWeekHeader, calendarGrid);
         VBox.setVgrow(calendarGrid, Priority.ALWAYS);
+        // FX 스레드에서, 몰려온 변경을 합쳐 한 번에 받는다.
+        dataManager.addChangeListener(this::onCalendarChanged, Platform::runLater);
         drawCalendar();
     }
 
@@ -74,101 +101,191 @@ public class CalendarView extends VBox {
         drawCalendar();
     }
 
+    public void showMonth(YearMonth month) {
+        currentYearMonth = month;
+        drawCalendar();
+    }
+
+    /**
+     * month 의 일정까지 칸에 다 들어갔으면 true. 벤치마크에서 달 넘김이 끝났는지 볼 때 쓴다.
+     */
+    boolean isMonthReady(YearMonth month) {
+        return month.equals(displayedMonth) && !displayedSkeleton;
+    }
+
     private void changeMonth(int amount) {
         currentYearMonth = currentYearMonth.plusMonths(amount);
         drawCalendar();
     }
 
+    // 달 모델은 백그라운드에서 만들어 두므로, 준비되어 있으면 칸에 날짜와 일정만 다시 묶는다.
+    // 아직이면 날짜만 먼저 보여 주고 모델이 오면 채운다.
     private void drawCalendar() {
-        calendarGrid.getChildren().clear();
-        monthTitle.setText(currentYearMonth.format(DateTimeFormatter.ofPattern("MMMM yyyy", Locale.getDefault())));
-        LocalDate firstDayOfMonth = currentYearMonth.atDay(1);
-        int dayOfWeekOfFirst = firstDayOfMonth.getDayOfWeek() == DayOfWeek.SUNDAY ? 0 : firstDayOfMonth.getDayOfWeek().getValue();
-
-        for (int i = 0; i < currentYearMonth.lengthOfMonth(); i++) {
-            LocalDate date = firstDayOfMonth.plusDays(i);
-            int row = (i + dayOfWeekOfFirst) / 7;
-            int col = (i + dayOfWeekOfFirst) % 7;
-
-            if (row < 6) {
-                VBox dayCell = createDayCell(date);
-                calendarGrid.add(dayCell, col, row);
+        YearMonth month = currentYearMonth;
+        monthTitle.setText(month.format(DateTimeFormatter.ofPattern("MMMM yyyy", Locale.getDefault())));
+        MonthModel ready = monthModels.getIfReady(month);
+        if (ready != null) {
+            applyModel(ready);
+        } else {
+            if (displayedMonth == null || !displayedMonth.equals(month)) {
+                applyModel(MonthModel.skeleton(month, LocalDate.now()));
+                displayedSkeleton = true;
             }
+            requestModel(month);
         }
+        monthModels.prefetchAround(month);
     }
 
-    private VBox createDayCell(LocalDate date) {
-        VBox cellBox = new VBox(3);
-        cellBox.setPadding(new Insets(5));
-        cellBox.setAlignment(Pos.TOP_LEFT);
-        String baseStyle = "-fx-background-color: rgba(255, 255, 255, 0.05); -fx-background-radius: 8;";
-        cellBox.setStyle(baseStyle);
-        if (date.equals(LocalDate.now())) {
-            cellBox.setStyle("-fx-background-color: rgba(173, 216, 230, 0.2); -fx-background-radius: 8; -fx-border-color: #add8e6; -fx-border-radius: 8; -fx-border-width: 1;");
+    private void requestModel(YearMonth month) {
+        monthModels.get(month).whenComplete((model, error) -> Platform.runLater(() -> {
+            if (error != null) {
+                System.err.println("Could not build calendar month " + month + ": " + error.getMessage());
+                return;
+            }
+            if (!month.equals(currentYearMonth)) return;
+            // 만드는 사이에 그 달이 바뀌었으면 다시 받는다.
+            if (monthModels.isCurrent(model)) {
+                applyModel(model);
+            } else {
+                requestModel(month);
+            }
+        }));
+    }
+
+    private void applyModel(MonthModel model) {
+        displayedMonth = model.month();
+        displayedSkeleton = false;
+        visibleCells.clear();
+        for (int slot = 0; slot < dayCells.length; slot++) {
+            MonthModel.DayModel day = model.slots().get(slot);
+            if (day == null) {
+                dayCells[slot].unbind();
+            } else {
+                dayCells[slot].bind(day);
+                visibleCells.put(day.date(), dayCells[slot]);
+            }
         }
-        
-        Label dayLabel = new Label(String.valueOf(date.getDayOfMonth()));
-        dayLabel.setFont(Font.font("Segoe UI", FontWeight.NORMAL, 14));
-        dayLabel.setTextFill(Color.WHITE);
-
-        ScrollPane scrollPane = new ScrollPane();
-        VBox eventsContainer = new VBox(2);
-        eventsContainer.setStyle("-fx-background-color: transparent;");
-        scrollPane.setContent(eventsContainer);
-        scrollPane.setFitToWidth(true);
-        scrollPane.setStyle("-fx-background-color: transparent; -fx-background: transparent;");
-        scrollPane.setHbarPolicy(ScrollPane.ScrollBarPolicy.NEVER);
-        scrollPane.setVbarPolicy(ScrollPane.ScrollBarPolicy.AS_NEEDED);
-
-        cellBox.getChildren().addAll(dayLabel, scrollPane);
-        VBox.setVgrow(scrollPane, Priority.ALWAYS);
-        
-        List<Event> events = dataManager.getEventsForDate(date);
-        events.forEach(event -> {
-            HBox eventNode = createEventNode(event, date);
-            eventsContainer.getChildren().add(eventNode);
-        });
-        
-        // 날짜 셀 자체에 대한 컨텍스트 메뉴 설정
-        ContextMenu dayCellContextMenu = new ContextMenu();
-        
-        MenuItem addNewItem = new MenuItem("Add New Event");
-        addNewItem.setOnAction(e -> showAddEventDialog(date));
-        
-        MenuItem deleteAllItem = new MenuItem("Delete All Events");
-        if (events.isEmpty()) {
-            deleteAllItem.setDisable(true);
-        } else {
+    }
+
+    // 바뀐 날짜 중 화면에 보이는 칸만 새 목록으로 맞춘다.
+    private void onCalendarChanged(List<CalendarChange> changes) {
+        for (LocalDate date : CalendarChange.datesOf(changes)) {
+            DayCell cell = visibleCells.get(date);
+            if (cell != null) {
+                cell.sync(dataManager.getEventsForDate(date));
+            }
+        }
+    }
+
+    private static String baseCellStyle(boolean today) {
+        if (today) {
+            return "-fx-background-color: rgba(173, 216, 230, 0.2); -fx-background-radius: 8; -fx-border-color: #add8e6; -fx-border-radius: 8; -fx-border-width: 1;";
+        }
+        return "-fx-background-color: rgba(255, 255, 255, 0.05); -fx-background-radius: 8;";
+    }
+
+    /**
+     * 달력의 한 칸. 한 번 만들어 두고 날짜만 바꿔 가며 다시 쓴다.
+     * 일정 목록은 ListView 로 보여 주므로 보이는 줄 수만큼만 EventCell 이 만들어지고, 스크롤하면 그 셀을 돌려 쓴다.
+     */
+    private final class DayCell {
+        private final VBox cellBox = new VBox(3);
+        private final Label dayLabel = new Label();
+        private final ListView<Event> eventList = new ListView<>();
+        private final MenuItem deleteAllItem = new MenuItem("Delete All Events");
+        private LocalDate date;
+        private boolean today;
+
+        DayCell() {
+            cellBox.setPadding(new Insets(5));
+            cellBox.setAlignment(Pos.TOP_LEFT);
+
+            dayLabel.setFont(Font.font("Segoe UI", FontWeight.NORMAL, 14));
+            dayLabel.setTextFill(Color.WHITE);
+
+            eventList.setStyle("-fx-background-color: transparent; -fx-control-inner-background: transparent; -fx-padding: 0;");
+            // 줄 높이를 고정하면 ListView 가 모든 줄의 높이를 재지 않고 보이는 줄만 배치한다.
+            eventList.setFixedCellSize(EVENT_ROW_HEIGHT);
+            eventList.setEditable(true);
+            eventList.setFocusTraversable(false);
+            // Ctrl/Shift 클릭으로 여러 일정을 골라 한 번에 끌어 옮길 수 있다.
+            eventList.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+            eventList.setCellFactory(list -> new EventCell(this));
+            // 기본 처리(목록 항목 교체) 대신 저장소에 저장하고, 화면은 변경 알림으로 맞춘다.
+            eventList.setOnEditCommit(edit -> dataManager.updateEvent(date, edit.getNewValue()));
+
+            cellBox.getChildren().addAll(dayLabel, eventList);
+            VBox.setVgrow(eventList, Priority.ALWAYS);
+
+            // 날짜 셀 자체에 대한 컨텍스트 메뉴
+            ContextMenu dayCellContextMenu = new ContextMenu();
+            MenuItem addNewItem = new MenuItem("Add New Event");
+            addNewItem.setOnAction(e -> showAddEventDialog(date));
             deleteAllItem.setOnAction(e -> {
                 Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
-                alert.initOwner(this.getScene().getWindow());
+                alert.initOwner(CalendarView.this.getScene().getWindow());
                 alert.setTitle("Confirm Deletion");
                 alert.setHeaderText("Delete all events on " + date.format(DateTimeFormatter.ofPattern("MMM dd")));
                 alert.setContentText("Are you sure? This action cannot be undone.");
-                
+
                 Optional<ButtonType> result = alert.showAndWait();
                 if (result.isPresent() && result.get() == ButtonType.OK) {
                     dataManager.deleteAllEventsForDate(date);
-                    redraw();
                 }
             });
+            dayCellContextMenu.getItems().addAll(addNewItem, new SeparatorMenuItem(), deleteAllItem);
+
+            // 일정 줄은 자기 컨텍스트 메뉴를 띄우고 이벤트를 소비하므로, 여기까지 오면 빈 공간에서 누른 것이다.
+            cellBox.setOnContextMenuRequested(event -> {
+                if (date != null) {
+                    dayCellContextMenu.show(cellBox, event.getScreenX(), event.getScreenY());
+                }
+            });
+
+            setupDragAndDropTarget(this);
         }
-        dayCellContextMenu.getItems().addAll(addNewItem, new SeparatorMenuItem(), deleteAllItem);
 
-        // 이벤트가 없는 빈 공간에서 우클릭했을 때 dayCellContextMenu를 보여줌
-        cellBox.setOnContextMenuRequested(event -> {
-            // 이벤트 버블링 방지: 하위 요소(개별 이벤트)가 아닌 날짜 셀의 빈 공간에서 발생했을 때만 메뉴를 표시
-            if (event.getTarget() == cellBox || event.getTarget() == scrollPane || event.getTarget() == eventsContainer) {
-                 dayCellContextMenu.show(cellBox, event.getScreenX(), event.getScreenY());
-            }
-        });
+        void bind(MonthModel.DayModel day) {
+            this.date = day.date();
+            this.today = day.today();
+            dayLabel.setText(String.valueOf(date.getDayOfMonth()));
+            cellBox.setStyle(baseCellStyle(today));
+            cellBox.setVisible(true);
+            eventList.getItems().setAll(day.events());
+            eventList.scrollTo(0);
+            updateDayState(day.events(), day.allCompleted());
+        }
+
+        // 일정이 모두 끝난 날은 날짜 숫자를 흐리게 보여 준다.
+        private void updateDayState(List<Event> events, boolean allCompleted) {
+            dayLabel.setTextFill(allCompleted ? Color.gray(0.7) : Color.WHITE);
+            deleteAllItem.setDisable(events.isEmpty());
+        }
 
-        setupDragAndDropTarget(cellBox, date);
+        void unbind() {
+            date = null;
+            eventList.getItems().clear();
+            cellBox.setVisible(false);
+        }
 
-        return cellBox;
+        // 목록의 일정 객체는 바뀔 때마다 새 객체이므로, 개수가 같으면 바뀐 자리만 갈아 끼운다.
+        // ListView 는 그 자리가 화면에 보일 때만 셀을 다시 그린다.
+        void sync(List<Event> events) {
+            ObservableList<Event> items = eventList.getItems();
+            if (items.size() == events.size()) {
+                for (int i = 0; i < events.size(); i++) {
+                    if (items.get(i) != events.get(i)) {
+                        items.set(i, events.get(i));
+                    }
+                }
+            } else {
+                items.setAll(events);
+            }
+            updateDayState(events, !events.isEmpty() && events.stream().allMatch(Event::isCompleted));
+        }
     }
-    
-    // 이 메서드는 `createDayCell`에서 사용됨
+
+    // 이 메서드는 `DayCell`에서 사용됨
     private void showAddEventDialog(LocalDate date) {
         Dialog<Event> dialog = new Dialog<>();
         dialog.initStyle(StageStyle.UTILITY);
@@ -209,99 +326,142 @@ public class CalendarView extends VBox {
         });
 
         Optional<Event> result = dialog.showAndWait();
-        result.ifPresent(newEvent -> {
-            dataManager.addEventForDate(date, newEvent);
-            redraw();
-        });
+        result.ifPresent(newEvent -> dataManager.addEventForDate(date, newEvent));
     }
 
-    private HBox createEventNode(Event event, LocalDate date) {
-        HBox eventBox = new HBox(5);
-        eventBox.setAlignment(Pos.CENTER_LEFT);
-        
-        CheckBox checkBox = new CheckBox();
-        checkBox.setSelected(event.isCompleted());
-        
-        Label eventLabel = new Label(event.toString());
-        eventLabel.setWrapText(true);
-        eventLabel.setTextFill(Color.WHITE);
-        eventLabel.setMaxWidth(Double.MAX_VALUE);
-        HBox.setHgrow(eventLabel, Priority.ALWAYS);
+    /**
+     * 일정 한 줄. ListView 가 보이는 줄 수만큼만 만들고 스크롤이나 목록 변경 때 updateItem 으로 돌려 쓴다.
+     * 저장소의 일정은 고치지 않고 사본을 고쳐 넘기며, 화면은 변경 알림을 받아 맞춘다.
+     */
+    private final class EventCell extends ListCell<Event> {
+        private final HBox eventBox = new HBox(5);
+        private final CheckBox checkBox = new CheckBox();
+        private final Label eventLabel = new Label();
+        private final ContextMenu eventContextMenu = new ContextMenu();
+        private final DayCell cell;
+        private TextField editField;
+
+        EventCell(DayCell cell) {
+            this.cell = cell;
+            setStyle("-fx-background-color: transparent; -fx-padding: 1 0;");
+            eventBox.setAlignment(Pos.CENTER_LEFT);
+
+            eventLabel.setTextFill(Color.WHITE);
+            eventLabel.setMaxWidth(Double.MAX_VALUE);
+            HBox.setHgrow(eventLabel, Priority.ALWAYS);
+            eventBox.getChildren().addAll(checkBox, eventLabel);
+
+            // 사용자가 누를 때만 불리므로 updateItem 에서 setSelected 해도 다시 저장되지 않는다.
+            checkBox.setOnAction(e -> {
+                Event edited = new Event(getItem());
+                edited.setCompleted(checkBox.isSelected());
+                dataManager.updateEvent(cell.date, edited);
+            });
 
-        eventBox.getChildren().addAll(checkBox, eventLabel);
-        
-        updateEventNodeStyle(eventBox, event.isCompleted());
-        
-        checkBox.selectedProperty().addListener((obs, wasSelected, isSelected) -> {
-            event.setCompleted(isSelected);
-            dataManager.updateEvent(date, event);
-            updateEventNodeStyle(eventBox, isSelected);
-        });
-        
-        eventBox.setUserData(event);
-        
-        eventLabel.setOnMouseClicked(mouseEvent -> {
-            if (mouseEvent.getButton() == MouseButton.PRIMARY && mouseEvent.getClickCount() == 2) {
-                inlineEdit(eventBox, event, date);
+            eventLabel.setOnMouseClicked(mouseEvent -> {
+                if (mouseEvent.getButton() == MouseButton.PRIMARY && mouseEvent.getClickCount() == 2) {
+                    getListView().edit(getIndex());
+                }
+            });
+
+            // 개별 이벤트 자체를 위한 컨텍스트 메뉴
+            MenuItem editItem = new MenuItem("Edit Details");
+            editItem.setOnAction(e -> showEditEventDialog(getItem(), cell.date));
+            MenuItem deleteItem = new MenuItem("Delete");
+            deleteItem.setOnAction(e -> deleteEvent(getItem(), cell.date));
+            eventContextMenu.getItems().addAll(editItem, new SeparatorMenuItem(), deleteItem);
+
+            selectedProperty().addListener((obs, wasSelected, isSelected) -> {
+                if (getItem() != null) updateEventNodeStyle(eventBox, eventLabel, getItem().isCompleted(), isSelected);
+            });
+
+            // 고른 일정을 잡았으면 고른 일정 모두를, 아니면 잡은 일정 하나만 옮긴다.
+            setOnDragDetected(eventDetected -> {
+                if (getItem() == null) return;
+                ArrayList<String> ids = new ArrayList<>();
+                if (isSelected()) {
+                    getListView().getSelectionModel().getSelectedItems().forEach(event -> ids.add(event.getId()));
+                } else {
+                    ids.add(getItem().getId());
+                }
+                Dragboard db = startDragAndDrop(TransferMode.MOVE);
+                ClipboardContent content = new ClipboardContent();
+                content.put(EVENT_DATA_FORMAT, ids);
+                db.setContent(content);
+                db.setDragView(eventBox.snapshot(null, null));
+                eventDetected.consume();
+            });
+        }
+
+        @Override
+        protected void updateItem(Event event, boolean empty) {
+            super.updateItem(event, empty);
+            setText(null);
+            if (empty || event == null) {
+                setGraphic(null);
+                setContextMenu(null);
+                return;
             }
-        });
-        
-        // 개별 이벤트 자체를 위한 컨텍스트 메뉴
-        ContextMenu eventContextMenu = new ContextMenu();
-        MenuItem editItem = new MenuItem("Edit Details");
-        editItem.setOnAction(e -> showEditEventDialog(event, date));
-        MenuItem deleteItem = new MenuItem("Delete");
-        deleteItem.setOnAction(e -> deleteEvent(event, date));
-        eventContextMenu.getItems().addAll(editItem, new SeparatorMenuItem(), deleteItem);
-        
-        eventBox.setOnContextMenuRequested(event_ -> 
-            eventContextMenu.show(eventBox, event_.getScreenX(), event_.getScreenY())
-        );
+            checkBox.setSelected(event.isCompleted());
+            eventLabel.setText(event.toString());
+            updateEventNodeStyle(eventBox, eventLabel, event.isCompleted(), isSelected());
+            if (!isEditing()) {
+                eventBox.getChildren().set(1, eventLabel);
+            }
+            setContextMenu(eventContextMenu);
+            setGraphic(eventBox);
+        }
 
-        setupDragAndDropSource(eventBox, event);
-        
-        return eventBox;
+        @Override
+        public void startEdit() {
+            super.startEdit();
+            if (!isEditing()) return;
+            if (editField == null) {
+                editField = new TextField();
+                HBox.setHgrow(editField, Priority.ALWAYS);
+                editField.setOnAction(e -> commitTitle());
+                editField.focusedProperty().addListener((obs, wasFocused, isNowFocused) -> {
+                    if (wasFocused && !isNowFocused && isEditing()) {
+                        commitTitle();
+                    }
+                });
+            }
+            editField.setText(getItem().getTitle());
+            eventBox.getChildren().set(1, editField);
+            editField.requestFocus();
+            editField.selectAll();
+        }
+
+        @Override
+        public void cancelEdit() {
+            super.cancelEdit();
+            eventBox.getChildren().set(1, eventLabel);
+        }
+
+        private void commitTitle() {
+            String newTitle = editField.getText().trim();
+            if (newTitle.isEmpty() || newTitle.equals(getItem().getTitle())) {
+                cancelEdit();
+                return;
+            }
+            Event edited = new Event(getItem());
+            edited.setTitle(newTitle);
+            commitEdit(edited);
+            eventBox.getChildren().set(1, eventLabel);
+        }
     }
     
-    private void updateEventNodeStyle(HBox eventBox, boolean isCompleted) {
-        Label label = (Label) eventBox.getChildren().get(1);
+    private void updateEventNodeStyle(HBox eventBox, Label label, boolean isCompleted, boolean isSelected) {
+        String border = isSelected ? " -fx-border-color: white; -fx-border-radius: 4;" : "";
         if (isCompleted) {
-            eventBox.setStyle("-fx-background-color: rgba(152, 251, 152, 0.5); -fx-padding: 3 5; -fx-background-radius: 4;");
+            eventBox.setStyle("-fx-background-color: rgba(152, 251, 152, 0.5); -fx-padding: 3 5; -fx-background-radius: 4;" + border);
             label.setStyle("-fx-strikethrough: true; -fx-text-fill: #556B2F;");
         } else {
-            eventBox.setStyle("-fx-background-color: rgba(70, 130, 180, 0.6); -fx-padding: 3 5; -fx-background-radius: 4;");
+            eventBox.setStyle("-fx-background-color: rgba(70, 130, 180, 0.6); -fx-padding: 3 5; -fx-background-radius: 4;" + border);
             label.setStyle("-fx-strikethrough: false; -fx-text-fill: white;");
         }
     }
     
-    private void inlineEdit(HBox eventBox, Event event, LocalDate date) {
-        Label originalLabel = (Label) eventBox.getChildren().get(1);
-        TextField editField = new TextField(event.getTitle());
-        HBox.setHgrow(editField, Priority.ALWAYS);
-        eventBox.getChildren().set(1, editField);
-        editField.requestFocus();
-        editField.selectAll();
-
-        Runnable saveAction = () -> {
-            String newTitle = editField.getText().trim();
-            if(!newTitle.isEmpty()) {
-                event.setTitle(newTitle);
-                dataManager.updateEvent(date, event);
-                originalLabel.setText(event.toString());
-                eventBox.getChildren().set(1, originalLabel);
-            } else {
-                eventBox.getChildren().set(1, originalLabel);
-            }
-        };
-
-        editField.setOnAction(e -> saveAction.run());
-        editField.focusedProperty().addListener((obs, wasFocused, isNowFocused) -> {
-            if (wasFocused && !isNowFocused) {
-                saveAction.run();
-            }
-        });
-    }
-
     private void showEditEventDialog(Event event, LocalDate date) {
         Dialog<Event> dialog = new Dialog<>();
         dialog.initStyle(StageStyle.UTILITY);
@@ -329,18 +489,16 @@ public class CalendarView extends VBox {
         
         dialog.setResultConverter(dialogButton -> {
             if (dialogButton == saveButtonType) {
-                event.setTitle(titleField.getText());
-                event.setTime(timeField.getText());
-                return event;
+                Event edited = new Event(event);
+                edited.setTitle(titleField.getText());
+                edited.setTime(timeField.getText());
+                return edited;
             }
             return null;
         });
 
         Optional<Event> result = dialog.showAndWait();
-        result.ifPresent(updatedEvent -> {
-            dataManager.updateEvent(date, updatedEvent);
-            redraw();
-        });
+        result.ifPresent(updatedEvent -> dataManager.updateEvent(date, updatedEvent));
     }
 
     private void deleteEvent(Event event, LocalDate date) {
@@ -353,22 +511,11 @@ public class CalendarView extends VBox {
         Optional<ButtonType> result = alert.showAndWait();
         if (result.isPresent() && result.get() == ButtonType.OK) {
             dataManager.deleteEvent(date, event.getId());
-            redraw();
         }
     }
 
-    private void setupDragAndDropSource(HBox eventBox, Event event) {
-        eventBox.setOnDragDetected(eventDetected -> {
-            Dragboard db = eventBox.startDragAndDrop(TransferMode.MOVE);
-            ClipboardContent content = new ClipboardContent();
-            content.put(EVENT_DATA_FORMAT, event.getId());
-            db.setContent(content);
-            db.setDragView(eventBox.snapshot(null, null));
-            eventDetected.consume();
-        });
-    }
-    
-    private void setupDragAndDropTarget(VBox dayCell, LocalDate date) {
+    private void setupDragAndDropTarget(DayCell cell) {
+        VBox dayCell = cell.cellBox;
         dayCell.setOnDragOver(event -> {
             if (event.getGestureSource() != dayCell && event.getDragboard().hasContent(EVENT_DATA_FORMAT)) {
                 event.acceptTransferModes(TransferMode.MOVE);
@@ -377,22 +524,16 @@ public class CalendarView extends VBox {
             event.consume();
         });
 
-        dayCell.setOnDragExited(event -> {
-            String baseStyle = "-fx-background-color: rgba(255, 255, 255, 0.05); -fx-background-radius: 8;";
-             if (date.equals(LocalDate.now())) {
-                baseStyle = "-fx-background-color: rgba(173, 216, 230, 0.2); -fx-background-radius: 8; -fx-border-color: #add8e6; -fx-border-radius: 8; -fx-border-width: 1;";
-            }
-            dayCell.setStyle(baseStyle);
-        });
+        dayCell.setOnDragExited(event -> dayCell.setStyle(baseCellStyle(cell.today)));
         
         dayCell.setOnDragDropped(event -> {
             Dragboard db = event.getDragboard();
             boolean success = false;
-            if (db.hasContent(EVENT_DATA_FORMAT)) {
-                String eventId = (String) db.getContent(EVENT_DATA_FORMAT);
-                dataManager.moveEvent(eventId, date);
-                success = true;
-                redraw();
+            if (db.hasContent(EVENT_DATA_FORMAT) && db.getContent(EVENT_DATA_FORMAT) instanceof List<?> ids) {
+                // 여러 개를 놓아도 한 번에 기록되고, 원래 날짜와 놓은 날짜의 칸만 다시 그려진다.
+                List<String> eventIds = new ArrayList<>();
+                ids.forEach(id -> eventIds.add(String.valueOf(id)));
+                success = dataManager.moveEvents(eventIds, cell.date) > 0;
             }
             event.setDropCompleted(success);
             event.consume();
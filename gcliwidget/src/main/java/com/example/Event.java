@@ -3,10 +3,19 @@ package com.example;
 import java.util.UUID;
 
 public class Event {
+    // 시간이 비어 있으면 맨 앞, HH:mm 으로 읽을 수 없으면 맨 뒤로 정렬된다.
+    public static final int UNTIMED = -1;
+    public static final int INVALID_TIME = Integer.MAX_VALUE;
+
     private String id;
     private String title;
     private String time; // HH:MM format
     private boolean completed; // <<< [추가] 완료 여부 필드
+    // time 을 분 단위로 읽어 둔 값에 MINUTE_OFFSET 을 더해 둔다. 0 이면 아직 계산하지 않은 것이다.
+    // Gson 은 생성자도 필드 초기값도 거치지 않고 0 으로 채운 객체를 만드므로, 0 이 실제 값(00:00)과 겹치지 않게 한다.
+    // 필드 하나라 다른 스레드가 동시에 계산해도 같은 값을 쓸 뿐이다.
+    private static final int MINUTE_OFFSET = 2;
+    private transient int cachedMinute;
 
     public Event(String title, String time) {
         this.id = UUID.randomUUID().toString();
@@ -14,6 +23,22 @@ public class Event {
         this.time = time;
         this.completed = false; // 기본값은 '미완료'
     }
+
+    Event(String id, String title, String time, boolean completed) {
+        this.id = id;
+        this.title = title;
+        this.time = time;
+        this.completed = completed;
+    }
+
+    // 같은 id 를 유지하는 복사본. 저장소가 내준 일정은 고치지 않고, 이 사본을 고쳐서 updateEvent 에 넘긴다.
+    public Event(Event other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.time = other.time;
+        this.completed = other.completed;
+        this.cachedMinute = other.cachedMinute;
+    }
     
     public void ensureId() {
         if (this.id == null) {
@@ -39,6 +64,36 @@ public class Event {
 
     public void setTime(String time) {
         this.time = time;
+        this.cachedMinute = 0;
+    }
+
+    /**
+     * 하루 중 분(0~1439). 시간이 없으면 UNTIMED, 형식이 맞지 않으면 INVALID_TIME.
+     */
+    public int getMinuteOfDay() {
+        int cached = cachedMinute;
+        if (cached == 0) {
+            // INVALID_TIME 에 더하면 넘치지만, 뺄 때 다시 돌아오므로 그대로 둔다.
+            cached = parseMinuteOfDay(time) + MINUTE_OFFSET;
+            cachedMinute = cached;
+        }
+        return cached - MINUTE_OFFSET;
+    }
+
+    static int parseMinuteOfDay(String time) {
+        if (time == null || time.isBlank()) return UNTIMED;
+        if (time.length() != 5 || time.charAt(2) != ':') return INVALID_TIME;
+        int hour = twoDigits(time, 0);
+        int minute = twoDigits(time, 3);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59) return INVALID_TIME;
+        return hour * 60 + minute;
+    }
+
+    private static int twoDigits(String value, int offset) {
+        char tens = value.charAt(offset);
+        char ones = value.charAt(offset + 1);
+        if (tens < '0' || tens > '9' || ones < '0' || ones > '9') return -1;
+        return (tens - '0') * 10 + (ones - '0');
     }
     
     // <<< [추가] completed 필드의 getter와 setter
@@ -0,0 +1,120 @@
+package com.example;
+
+import java.text.Normalizer;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+/**
+ * 같은(거의 같은) 명령에 대한 Gemini 응답을 잠시 기억해 둔다.
+ * 키는 정규화한 명령, 오늘 날짜, 저장소 버전이다. 일정이 하나라도 바뀌면 버전이 올라가므로 그 전 응답은 더 맞지 않는다.
+ * 그래서 일정을 바꾸는 응답도 넣어 둘 수 있다. 그 응답을 적용하면 버전이 올라가 같은 명령이라도 다시 물어본다.
+ * 오래 안 쓴 항목부터 버리고(LRU), TTL 이 지난 항목도 버린다. 모든 메서드는 synchronized 다.
+ */
+public class GeminiResponseCache {
+
+    private static final int DEFAULT_MAX_ENTRIES = Integer.getInteger("gcliwidget.gemini.cacheSize", 64);
+    private static final Duration DEFAULT_TTL = Duration.ofSeconds(Long.getLong("gcliwidget.gemini.cacheTtlSeconds", 600));
+
+    record Key(String prompt, LocalDate date, long scheduleVersion) {}
+
+    private record Entry(String response, Instant storedAt) {}
+
+    public record Stats(int entries, long hits, long misses) {
+        public double hitRate() {
+            long total = hits + misses;
+            return total == 0 ? 0 : (double) hits / total;
+        }
+    }
+
+    private final LongSupplier scheduleVersion;
+    private final Clock clock;
+    private final int maxEntries;
+    private final Duration ttl;
+    private final LinkedHashMap<Key, Entry> entries;
+    private long hits;
+    private long misses;
+
+    public GeminiResponseCache() {
+        this(() -> CalendarDataManager.getInstance().getVersion(), Clock.systemDefaultZone(), DEFAULT_MAX_ENTRIES, DEFAULT_TTL);
+    }
+
+    GeminiResponseCache(LongSupplier scheduleVersion, Clock clock, int maxEntries, Duration ttl) {
+        this.scheduleVersion = scheduleVersion;
+        this.clock = clock;
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, Entry> eldest) {
+                return size() > GeminiResponseCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * 지금 이 순간의 키. 요청을 보내기 전에 만들어 두었다가 응답이 오면 그 키로 넣는다.
+     */
+    Key keyFor(String prompt) {
+        return new Key(normalize(prompt), LocalDate.now(clock), scheduleVersion.getAsLong());
+    }
+
+    synchronized Optional<String> get(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null && isExpired(entry)) {
+            entries.remove(key);
+            entry = null;
+        }
+        if (entry == null) {
+            misses++;
+            return Optional.empty();
+        }
+        hits++;
+        return Optional.of(entry.response());
+    }
+
+    /**
+     * 요청 전에 만든 키로 응답을 넣는다. 기다리는 사이 일정이나 날짜가 바뀌었으면 이미 맞지 않는 응답이므로 넣지 않고 false.
+     */
+    synchronized boolean put(Key key, String response) {
+        long currentVersion = scheduleVersion.getAsLong();
+        LocalDate today = LocalDate.now(clock);
+        if (key.scheduleVersion() != currentVersion || !key.date().equals(today)) {
+            return false;
+        }
+        // 지난 버전이나 지난 날짜의 항목은 다시 맞을 일이 없으므로 자리를 비운다.
+        entries.keySet().removeIf(old -> old.scheduleVersion() < currentVersion || old.date().isBefore(today));
+        entries.put(key, new Entry(response, clock.instant()));
+        return true;
+    }
+
+    public synchronized int clear() {
+        int cleared = entries.size();
+        entries.clear();
+        return cleared;
+    }
+
+    public synchronized Stats stats() {
+        entries.values().removeIf(this::isExpired);
+        return new Stats(entries.size(), hits, misses);
+    }
+
+    private boolean isExpired(Entry entry) {
+        return entry.storedAt().plus(ttl).isBefore(clock.instant());
+    }
+
+    /**
+     * 대소문자, 유니코드 조합형, 연속 공백, 끝의 문장부호 차이는 같은 명령으로 본다.
+     */
+    static String normalize(String prompt) {
+        String normalized = Normalizer.normalize(prompt, Normalizer.Form.NFC).strip().toLowerCase(Locale.ROOT);
+        normalized = normalized.replaceAll("\\s+", " ");
+        return normalized.replaceAll("[\\s.!?~。]+$", "");
+    }
+}
@@ -1,78 +1,121 @@
 package com.example;
 
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.net.http.HttpTimeoutException;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import com.google.gson.Gson;
 import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 
 public class GeminiService {
 
+    // 테스트에서는 로컬 스텁 서버 주소로 바꾼다.
+    private static final String DEFAULT_BASE_URL = System.getProperty("gcliwidget.gemini.baseUrl", "https://generativelanguage.googleapis.com/v1beta");
+    private static final String MODEL = "gemini-1.5-flash";
+
     private final String apiKey;
-    private final HttpClient httpClient;
+    private final String baseUrl;
+    private final GeminiTransport transport;
     private final Gson gson;
+    private final GeminiResponseCache cache;
+    private final PromptBuilder promptBuilder = new PromptBuilder();
+    // 스트림 본문은 줄이 올 때까지 막히며 읽으므로 HttpClient 스레드 대신 가상 스레드에서 읽는다.
+    private final Executor streamReader = runnable -> Thread.ofVirtual().name("gemini-stream").start(runnable);
 
     public GeminiService(String apiKey) {
+        this(apiKey, new GeminiResponseCache());
+    }
+
+    public GeminiService(String apiKey, GeminiResponseCache cache) {
+        this(apiKey, DEFAULT_BASE_URL, cache, new GeminiTransport(GeminiTransport.Config.fromSystemProperties()));
+    }
+
+    GeminiService(String apiKey, String baseUrl, GeminiResponseCache cache) {
+        this(apiKey, baseUrl, cache, new GeminiTransport(GeminiTransport.Config.fromSystemProperties()));
+    }
+
+    GeminiService(String apiKey, String baseUrl, GeminiResponseCache cache, GeminiTransport transport) {
         this.apiKey = apiKey;
-        this.httpClient = HttpClient.newHttpClient();
+        this.baseUrl = baseUrl;
+        this.cache = cache;
+        this.transport = transport;
         this.gson = new Gson();
     }
 
+    /**
+     * API 서버에 미리 연결해 둔다. 앱이 뜰 때 한 번 부르면 첫 명령이 TLS 연결을 기다리지 않는다.
+     */
+    public CompletableFuture<Void> warmUp() {
+        return transport.warmUp(URI.create(baseUrl + "/models"));
+    }
+
     public CompletableFuture<String> generateContent(String prompt, String scheduleContext) {
-        String url = "https://generativelanguage.googleapis.com/v1beta/models/gemini-1.5-flash:generateContent?key=" + apiKey;
-
-                LocalDateTime now = LocalDateTime.now();
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
-        String currentDate = now.format(formatter);
-        
-        String systemPrompt = "You are a powerful calendar assistant. Your response MUST be a single JSON object. "
-                + "The root of the object must contain one key: 'actions', which is an array of action objects. "
-                + "The current date is " + currentDate + ".\n\n"
-
-                + "## CURRENT SCHEDULE (for context) ##\n"
-                + scheduleContext + "\n\n"
-
-                + "## **Core Rules** ##\n"
-                + "1.  **Event Identification Rule:** When the user asks to 'complete', 'delete', or 'modify' an event, you MUST first look at the `CURRENT SCHEDULE` context. Identify the *exact title* and *date* of the event the user is referring to. Use that exact information to construct the JSON. **DO NOT use the user's descriptive phrase (like '오늘 등록된 식사') as the `title` in the JSON.**\n"
-                + "2.  **Title Refinement Rule:** When 'add_events', refine the user's language into a concise title (e.g., '...밥먹기로 함' -> '식사').\n\n"
-
-                + "## ACTIONS FORMAT ##\n"
-                + "1. Add: {\"action\": \"add_events\", \"events\": [{\"title\": \"...\", \"date\": \"...\", \"time\": \"...\"}]}\n"
-                + "2. Complete: {\"action\": \"complete_events\", \"events\": [{\"title\": \"...\", \"date\": \"...\"}]}\n"
-                + "3. Delete: {\"action\": \"delete_events\", \"events\": [{\"title\": \"...\", \"date\": \"...\"}]}\n"
-                + "4. Copy: {\"action\": \"copy_events\", \"source_date\": \"...\", \"destination_date\": \"...\"}\n\n"
-
-                + "## EXAMPLES ##\n"
-                + "Let's assume the CURRENT SCHEDULE is:\n"
-                + "2024-05-22\n"
-                + "- [ ] 팀 미팅 (15:00)\n"
-                + "- [ ] 운동 (18:00)\n"
-                + "2024-05-23\n"
-                + "- [ ] 프로젝트 보고서 제출\n\n"
-                
-                + "User: 오늘 19시에 친구랑 저녁약속\n"
-                + "Assistant: {\"actions\": [{\"action\": \"add_events\", \"events\": [{\"title\": \"친구와 저녁 약속\", \"date\": \"" + currentDate + "\", \"time\": \"19:00\"}]}]}\n\n"
-
-                + "User: 오늘 운동 끝났어 체크해줘\n"
-                + "Assistant: {\"actions\": [{\"action\": \"complete_events\", \"events\": [{\"title\": \"운동\", \"date\": \"" + currentDate + "\"}]}]}\n\n"
-
-                + "User: 오늘 팀 미팅 취소해줘\n"
-                + "Assistant: {\"actions\": [{\"action\": \"delete_events\", \"events\": [{\"title\": \"팀 미팅\", \"date\": \"" + currentDate + "\"}]}]}\n\n"
-
-                + "User: 내일 보고서 제출하는거 삭제해줘\n"
-                + "Assistant: {\"actions\": [{\"action\": \"delete_events\", \"events\": [{\"title\": \"프로젝트 보고서 제출\", \"date\": \"" + LocalDate.now().plusDays(1).format(DateTimeFormatter.ISO_LOCAL_DATE) + "\"}]}]}\n\n"
-
-                + "User: 어제 일정을 내일로 복사해줘\n"
-                + "Assistant: {\"actions\": [{\"action\": \"copy_events\", \"source_date\": \"" + LocalDate.now().minusDays(1).format(DateTimeFormatter.ISO_LOCAL_DATE) + "\", \"destination_date\": \"" + LocalDate.now().plusDays(1).format(DateTimeFormatter.ISO_LOCAL_DATE) + "\"}]}\n\n"
-
-                + "Process the user's request based on the rules and CURRENT SCHEDULE: " + prompt;
+        GeminiResponseCache.Key key = cache.keyFor(prompt);
+        Optional<String> cached = cache.get(key);
+        if (cached.isPresent()) return CompletableFuture.completedFuture(cached.get());
+
+        String url = baseUrl + "/models/" + MODEL + ":generateContent?key=" + apiKey;
+        return transport.send(buildRequest(url, prompt, scheduleContext), HttpResponse.BodyHandlers.ofString())
+                .thenApply(HttpResponse::body)
+                .thenApply(this::parseResponse)
+                .thenApply(text -> remember(key, text));
+    }
+
+    /**
+     * streamGenerateContent(SSE)로 응답을 받으며, actions 배열의 동작이 하나 완성될 때마다 onAction 을 부른다.
+     * onAction 은 스트림을 읽는 스레드에서 불린다. 끝나면 모델이 보낸 글자 전체를 돌려준다.
+     * 동작이 하나도 없던 응답(오류 객체 등)은 이 글자를 generateContent 의 결과처럼 다루면 된다.
+     */
+    public CompletableFuture<String> streamContent(String prompt, String scheduleContext, Consumer<JsonObject> onAction) {
+        GeminiResponseCache.Key key = cache.keyFor(prompt);
+        Optional<String> cached = cache.get(key);
+        if (cached.isPresent()) {
+            // 기억해 둔 응답도 같은 파서로 흘려 동작을 똑같이 넘긴다.
+            return CompletableFuture.supplyAsync(() -> {
+                ActionStreamParser parser = new ActionStreamParser(onAction);
+                parser.feed(cached.get());
+                return parser.text();
+            }, streamReader);
+        }
+
+        String url = baseUrl + "/models/" + MODEL + ":streamGenerateContent?alt=sse&key=" + apiKey;
+        return transport.send(buildRequest(url, prompt, scheduleContext), HttpResponse.BodyHandlers.ofLines())
+                .thenApplyAsync(response -> readStream(response, onAction), streamReader)
+                .thenApply(text -> remember(key, text));
+    }
+
+    // 동작 목록이 제대로 든 응답만 기억한다. 오류나 깨진 응답은 다음에 다시 물어봐야 한다.
+    // 일정을 바꾸는 응답을 적용하면 저장소 버전이 올라가 키가 달라지므로 같은 응답이 다시 재생되지 않는다.
+    private String remember(GeminiResponseCache.Key key, String text) {
+        try {
+            String json = text.strip();
+            if (json.startsWith("```json")) json = json.substring(7, json.length() - 3).strip();
+            JsonObject response = gson.fromJson(json, JsonObject.class);
+            if (response != null && response.has("actions") && !response.has("error")) cache.put(key, text);
+        } catch (RuntimeException e) {
+            // 해석할 수 없는 응답은 기억하지 않는다.
+        }
+        return text;
+    }
+
+    private HttpRequest buildRequest(String url, String prompt, String scheduleContext) {
+        return transport.newRequest(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(buildRequestBody(prompt, scheduleContext)))
+                .build();
+    }
+
+    private String buildRequestBody(String prompt, String scheduleContext) {
+        String systemPrompt = promptBuilder.build(prompt, scheduleContext);
 
         JsonObject part = new JsonObject();
         part.addProperty("text", systemPrompt);
@@ -88,23 +131,67 @@ public class GeminiService {
         generationConfig.addProperty("response_mime_type", "application/json");
         requestBody.add("generationConfig", generationConfig);
 
-        String jsonBody = gson.toJson(requestBody);
+        return gson.toJson(requestBody);
+    }
 
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(url))
-                .header("Content-Type", "application/json")
-                .POST(HttpRequest.BodyPublishers.ofString(jsonBody))
-                .build();
+    // SSE 는 "data: {...}" 줄들과 빈 줄로 나뉜 이벤트다. 이벤트마다 조각 글자를 꺼내 파서에 넣는다.
+    // 한동안 아무것도 오지 않으면 watchdog 이 스트림을 닫고 시간 초과로 끝낸다.
+    private String readStream(HttpResponse<Stream<String>> response, Consumer<JsonObject> onAction) {
+        try (Stream<String> lines = response.body();
+                GeminiTransport.IdleWatchdog watchdog = transport.watchIdle(lines::close)) {
+            String text;
+            try {
+                text = readEvents(response.statusCode(), lines, watchdog, onAction);
+            } catch (RuntimeException e) {
+                watchdog.throwIfTimedOut();
+                throw e;
+            }
+            // 닫힌 스트림은 오류 없이 끝난 것처럼 보일 수도 있다.
+            watchdog.throwIfTimedOut();
+            return text;
+        } catch (HttpTimeoutException e) {
+            throw new CompletionException(e);
+        }
+    }
 
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
-                .thenApply(HttpResponse::body)
-                .thenApply(this::parseResponse);
+    private String readEvents(int status, Stream<String> lines, GeminiTransport.IdleWatchdog watchdog, Consumer<JsonObject> onAction) {
+        if (status != 200) {
+            return parseResponse(String.join("\n", lines.toList()));
+        }
+        ActionStreamParser parser = new ActionStreamParser(onAction);
+        StringBuilder data = new StringBuilder();
+        lines.forEachOrdered(line -> {
+            watchdog.touch();
+            if (line.startsWith("data:")) {
+                data.append(line.substring(5).strip());
+            } else if (line.isBlank() && data.length() > 0) {
+                feedEvent(data.toString(), parser);
+                data.setLength(0);
+            }
+        });
+        if (data.length() > 0) feedEvent(data.toString(), parser);
+        return parser.text();
+    }
+
+    private void feedEvent(String data, ActionStreamParser parser) {
+        JsonObject chunk = gson.fromJson(data, JsonObject.class);
+        if (chunk.has("error")) {
+            throw new IllegalStateException("API Error: " + chunk.getAsJsonObject("error").get("message").getAsString());
+        }
+        if (!chunk.has("candidates") || chunk.getAsJsonArray("candidates").isEmpty()) return;
+        JsonObject candidate = chunk.getAsJsonArray("candidates").get(0).getAsJsonObject();
+        // 마지막 이벤트는 content 없이 finishReason 만 오기도 한다.
+        if (!candidate.has("content")) return;
+        for (JsonElement part : candidate.getAsJsonObject("content").getAsJsonArray("parts")) {
+            JsonObject partObject = part.getAsJsonObject();
+            if (partObject.has("text")) parser.feed(partObject.get("text").getAsString());
+        }
     }
 
     public CompletableFuture<String> listModels() {
-        String url = "https://generativelanguage.googleapis.com/v1beta/models?key=" + apiKey;
-        HttpRequest request = HttpRequest.newBuilder().uri(URI.create(url)).header("Content-Type", "application/json").GET().build();
-        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()).thenApply(HttpResponse::body);
+        String url = baseUrl + "/models?key=" + apiKey;
+        HttpRequest request = transport.newRequest(URI.create(url)).header("Content-Type", "application/json").GET().build();
+        return transport.send(request, HttpResponse.BodyHandlers.ofString()).thenApply(HttpResponse::body);
     }
 
     private String parseResponse(String responseBody) {
@@ -0,0 +1,274 @@
+package com.example;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Gemini 와 주고받는 HTTP 를 맡는다. HTTP/2 로 연결을 재사용하고, 시작할 때 미리 연결해 두며(warm-up),
+ * 요청마다 제한 시간을 건다. 연결 실패/시간 초과/429/5xx 는 지수 백오프와 흔들기(jitter)로 몇 번 다시 보내고,
+ * Retry-After 가 있으면 그만큼은 기다린다. 실패가 이어지면 회로 차단기가 열려 cooldown 동안은 보내지 않고 바로 실패한다.
+ */
+public class GeminiTransport {
+
+    /**
+     * 전송 설정. fromSystemProperties() 가 기본값이고, 테스트는 짧은 값으로 직접 만든다.
+     */
+    public record Config(Duration connectTimeout, Duration requestTimeout, Duration streamIdleTimeout,
+            int maxAttempts, Duration baseBackoff, Duration maxBackoff, Duration maxRetryAfter,
+            int breakerThreshold, Duration breakerCooldown) {
+
+        public static Config fromSystemProperties() {
+            return new Config(
+                    Duration.ofSeconds(Long.getLong("gcliwidget.http.connectTimeoutSeconds", 10)),
+                    Duration.ofSeconds(Long.getLong("gcliwidget.http.requestTimeoutSeconds", 30)),
+                    Duration.ofSeconds(Long.getLong("gcliwidget.http.streamIdleSeconds", 60)),
+                    Integer.getInteger("gcliwidget.http.maxAttempts", 3),
+                    Duration.ofMillis(Long.getLong("gcliwidget.http.backoffMillis", 500)),
+                    Duration.ofSeconds(8),
+                    Duration.ofSeconds(Long.getLong("gcliwidget.http.maxRetryAfterSeconds", 30)),
+                    Integer.getInteger("gcliwidget.http.breakerThreshold", 5),
+                    Duration.ofSeconds(Long.getLong("gcliwidget.http.breakerCooldownSeconds", 30)));
+        }
+    }
+
+    /**
+     * 회로 차단기가 열려 있어 보내지 않았다.
+     */
+    public static class CircuitOpenException extends IOException {
+        private static final long serialVersionUID = 1L;
+
+        CircuitOpenException(Duration retryIn) {
+            super("Gemini is temporarily unavailable after repeated failures. Try again in " + Math.max(1, retryIn.toSeconds()) + "s.");
+        }
+    }
+
+    private enum BreakerState { CLOSED, OPEN, HALF_OPEN }
+
+    private final Config config;
+    private final HttpClient httpClient;
+    private final LongSupplier nanoTime;
+    private BreakerState breakerState = BreakerState.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    // HALF_OPEN 에서 시험 삼아 보낸 요청이 이미 나가 있으면 true. 그 결과가 나올 때까지 다른 요청은 막는다.
+    private boolean trialInFlight;
+
+    public GeminiTransport(Config config) {
+        this(config, System::nanoTime);
+    }
+
+    GeminiTransport(Config config, LongSupplier nanoTime) {
+        this.config = config;
+        this.nanoTime = nanoTime;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(config.connectTimeout())
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    Config config() {
+        return config;
+    }
+
+    /**
+     * 요청 제한 시간이 걸린 요청 빌더.
+     */
+    HttpRequest.Builder newRequest(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(config.requestTimeout());
+    }
+
+    /**
+     * 서버에 미리 연결해 TLS/HTTP2 준비를 끝내 둔다. 첫 명령이 연결 비용을 내지 않게 하려는 것이라 결과는 보지 않는다.
+     */
+    public CompletableFuture<Void> warmUp(URI uri) {
+        HttpRequest request = newRequest(uri).method("HEAD", HttpRequest.BodyPublishers.noBody()).build();
+        long start = nanoTime.getAsLong();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, error) -> {
+                    long millis = TimeUnit.NANOSECONDS.toMillis(nanoTime.getAsLong() - start);
+                    if (error != null) {
+                        System.err.println("Gemini warm-up failed after " + millis + "ms: " + error.getMessage());
+                    } else {
+                        System.out.println("Gemini warm-up: " + response.version() + " in " + millis + "ms");
+                    }
+                    return null;
+                });
+    }
+
+    /**
+     * 다시 보낼 만한 실패면 몇 번 더 보낸다. 마지막까지 429/5xx 면 그 응답을 그대로 돌려준다.
+     * 회로 차단기는 시도마다가 아니라 요청 하나의 최종 결과로 한 번만 센다.
+     */
+    public <T> CompletableFuture<HttpResponse<T>> send(HttpRequest request, HttpResponse.BodyHandler<T> handler) {
+        try {
+            acquire();
+        } catch (CircuitOpenException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return attempt(request, handler, 1).whenComplete((response, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            record(cause != null ? !(cause instanceof IOException) : !isRetryable(response.statusCode()));
+        });
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> attempt(HttpRequest request, HttpResponse.BodyHandler<T> handler, int attempt) {
+        boolean lastAttempt = attempt >= config.maxAttempts();
+        // 다시 보낼 응답의 본문은 읽지 않고 버린다.
+        HttpResponse.BodyHandler<T> guarded = info -> !lastAttempt && isRetryable(info.statusCode())
+                ? HttpResponse.BodySubscribers.replacing(null)
+                : handler.apply(info);
+
+        return httpClient.sendAsync(request, guarded).handle((response, error) -> {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            boolean failed = cause != null ? cause instanceof IOException : isRetryable(response.statusCode());
+            if (cause != null && !(cause instanceof IOException)) {
+                return CompletableFuture.<HttpResponse<T>>failedFuture(cause);
+            }
+            if (!failed) {
+                return CompletableFuture.completedFuture(response);
+            }
+
+            Optional<Duration> retryAfter = response == null ? Optional.empty() : retryAfter(response);
+            if (lastAttempt || retryAfter.filter(wait -> wait.compareTo(config.maxRetryAfter()) > 0).isPresent()) {
+                return cause != null ? CompletableFuture.<HttpResponse<T>>failedFuture(cause) : CompletableFuture.completedFuture(response);
+            }
+            long delay = Math.max(backoffMillis(attempt), retryAfter.map(Duration::toMillis).orElse(0L));
+            System.out.println("Gemini request failed (" + (cause != null ? cause.getClass().getSimpleName() : "HTTP " + response.statusCode())
+                    + "), retrying in " + delay + "ms [" + attempt + "/" + config.maxAttempts() + "]");
+            return CompletableFuture.supplyAsync(() -> null, CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS))
+                    .thenCompose(ignored -> attempt(request, handler, attempt + 1));
+        }).thenCompose(future -> future);
+    }
+
+    static boolean isRetryable(int status) {
+        return status == 408 || status == 429 || status == 500 || status == 502 || status == 503 || status == 504;
+    }
+
+    // 지수 백오프(base * 2^(n-1), 최대 maxBackoff)에 50~100% 흔들기를 곱한다. 동시에 실패한 요청들이 한꺼번에 몰리지 않게 한다.
+    private long backoffMillis(int attempt) {
+        long exponential = config.baseBackoff().toMillis() << Math.min(attempt - 1, 20);
+        long capped = Math.min(exponential, config.maxBackoff().toMillis());
+        return (long) (capped * ThreadLocalRandom.current().nextDouble(0.5, 1.0));
+    }
+
+    // Retry-After 는 초 수이거나 HTTP 날짜다.
+    static Optional<Duration> retryAfter(HttpResponse<?> response) {
+        return response.headers().firstValue("Retry-After").flatMap(value -> {
+            try {
+                return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value.strip()))));
+            } catch (NumberFormatException e) {
+                try {
+                    Duration wait = Duration.between(ZonedDateTime.now(), ZonedDateTime.parse(value.strip(), DateTimeFormatter.RFC_1123_DATE_TIME));
+                    return Optional.of(wait.isNegative() ? Duration.ZERO : wait);
+                } catch (DateTimeParseException ignored) {
+                    return Optional.empty();
+                }
+            }
+        });
+    }
+
+    private synchronized void acquire() throws CircuitOpenException {
+        if (breakerState == BreakerState.OPEN) {
+            long elapsed = nanoTime.getAsLong() - openedAt;
+            if (elapsed < config.breakerCooldown().toNanos()) {
+                throw new CircuitOpenException(config.breakerCooldown().minusNanos(elapsed));
+            }
+            breakerState = BreakerState.HALF_OPEN;
+        }
+        if (breakerState == BreakerState.HALF_OPEN) {
+            if (trialInFlight) throw new CircuitOpenException(Duration.ZERO);
+            trialInFlight = true;
+        }
+    }
+
+    private synchronized void record(boolean success) {
+        trialInFlight = false;
+        if (success) {
+            consecutiveFailures = 0;
+            breakerState = BreakerState.CLOSED;
+            return;
+        }
+        consecutiveFailures++;
+        if (breakerState == BreakerState.HALF_OPEN || consecutiveFailures >= config.breakerThreshold()) {
+            if (breakerState != BreakerState.OPEN) {
+                System.err.println("Gemini circuit opened after " + consecutiveFailures + " consecutive failure(s).");
+            }
+            breakerState = BreakerState.OPEN;
+            openedAt = nanoTime.getAsLong();
+        }
+    }
+
+    /**
+     * 스트림 본문을 읽는 동안 streamIdleTimeout 이 지나도록 아무것도 오지 않으면 source 를 닫아 막힌 읽기를 풀어 준다.
+     * 읽는 쪽은 줄을 받을 때마다 touch() 하고, 끝나면 close() 한다.
+     */
+    IdleWatchdog watchIdle(Closeable source) {
+        return new IdleWatchdog(source, config.streamIdleTimeout());
+    }
+
+    static final class IdleWatchdog implements AutoCloseable {
+        private final Closeable source;
+        private final long timeoutNanos;
+        private final Thread thread;
+        private volatile long lastActivity = System.nanoTime();
+        private volatile boolean timedOut;
+
+        private IdleWatchdog(Closeable source, Duration timeout) {
+            this.source = source;
+            this.timeoutNanos = timeout.toNanos();
+            this.thread = Thread.ofVirtual().name("gemini-stream-watchdog").start(this::watch);
+        }
+
+        void touch() {
+            lastActivity = System.nanoTime();
+        }
+
+        /**
+         * 시간 초과로 닫았으면 그 사실을 알리는 예외를 던진다. 읽기가 끝난 직후에 부른다.
+         */
+        void throwIfTimedOut() throws HttpTimeoutException {
+            if (timedOut) {
+                throw new HttpTimeoutException("No data from Gemini for " + TimeUnit.NANOSECONDS.toSeconds(timeoutNanos) + "s");
+            }
+        }
+
+        private void watch() {
+            try {
+                while (true) {
+                    long idle = System.nanoTime() - lastActivity;
+                    if (idle >= timeoutNanos) {
+                        timedOut = true;
+                        source.close();
+                        return;
+                    }
+                    TimeUnit.NANOSECONDS.sleep(timeoutNanos - idle);
+                }
+            } catch (InterruptedException e) {
+                // 읽기가 먼저 끝났다.
+            } catch (IOException e) {
+                System.err.println("Failed to close stalled Gemini stream: " + e.getMessage());
+            }
+        }
+
+        @Override
+        public void close() {
+            thread.interrupt();
+        }
+    }
+}
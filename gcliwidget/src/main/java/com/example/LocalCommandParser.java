@@ -0,0 +1,364 @@
+package com.example;
+
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+
+/**
+ * "내일 15시 팀 미팅", "오늘 운동 완료", "어제 일정 내일로 복사" 같은 단순한 명령을 네트워크 없이 바로 해석한다.
+ * 결과는 Gemini 와 같은 {"actions": [...]} 형식이라 App 이 그대로 적용할 수 있다.
+ * 해석마다 확신도를 매기고, 문턱(기본 0.8)에 못 미치거나 질문/여러 절/수정처럼 애매한 명령이면 비워 돌려주어 Gemini 에 맡긴다.
+ * 완료/삭제는 그 날짜에 실제로 있는 일정 제목과 하나로 맞아야만 해석한다.
+ */
+public class LocalCommandParser {
+
+    // -Dgcliwidget.local.confidence=1.1 처럼 1 보다 크게 주면 로컬 해석을 끈다.
+    private static final double DEFAULT_THRESHOLD = thresholdFromSystemProperties();
+
+    private enum Kind { ADD, COMPLETE, DELETE, COPY }
+
+    // 잘못된 값 때문에 클래스 초기화가 실패하면 명령 처리 전체가 멈추므로, 기본값으로 돌아간다.
+    private static double thresholdFromSystemProperties() {
+        String value = System.getProperty("gcliwidget.local.confidence", "0.8");
+        try {
+            double threshold = Double.parseDouble(value.strip());
+            if (!Double.isNaN(threshold)) return threshold;
+        } catch (NumberFormatException e) {
+            // 숫자가 아니면 기본값을 쓴다.
+        }
+        System.err.println("Ignoring invalid gcliwidget.local.confidence '" + value + "', using 0.8");
+        return 0.8;
+    }
+
+    /**
+     * 해석한 동작 하나와 그 확신도(0~1).
+     */
+    record Parse(JsonObject action, double confidence) {}
+
+    private record Found<T>(int start, T value, String particle) {}
+
+    // 낱말 경계. 한글 뒤에 붙는 조사는 따로 받는다.
+    private static final String B0 = "(?<![\\p{L}\\p{N}])";
+    private static final String PARTICLE = "(은|는|에|에는|엔|의|도|부터|까지|로|으로|에서)?(?![\\p{L}\\p{N}])";
+
+    private static final Pattern ISO_DATE = Pattern.compile(B0 + "(\\d{4})-(\\d{1,2})-(\\d{1,2})" + PARTICLE);
+    private static final Pattern KOREAN_MONTH_DAY = Pattern.compile(B0 + "(\\d{1,2})월\\s*(\\d{1,2})일" + PARTICLE);
+    private static final Pattern SLASH_MONTH_DAY = Pattern.compile(B0 + "(\\d{1,2})/(\\d{1,2})" + PARTICLE);
+    private static final Pattern DAYS_LATER = Pattern.compile(B0 + "(?:(\\d{1,2})일\\s*(?:후|뒤)|in\\s+(\\d{1,2})\\s+days?)" + PARTICLE,
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern RELATIVE_DAY = Pattern.compile(
+            B0 + "(그저께|그제|어제|오늘|내일|모레|글피|yesterday|today|tonight|tomorrow)" + PARTICLE, Pattern.CASE_INSENSITIVE);
+    private static final Pattern KOREAN_WEEKDAY = Pattern.compile(
+            B0 + "(?:(다음\\s*주|이번\\s*주|담주)\\s*)?(월|화|수|목|금|토|일)요일" + PARTICLE);
+    private static final Pattern ENGLISH_WEEKDAY = Pattern.compile(
+            B0 + "(?:(next|this)\\s+)?(monday|tuesday|wednesday|thursday|friday|saturday|sunday)" + PARTICLE, Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern KOREAN_TIME = Pattern.compile(
+            B0 + "(?:(오전|오후|아침|저녁|밤|새벽)\\s*)?(\\d{1,2})시(?:\\s*(\\d{1,2})분|\\s*(반))?" + PARTICLE);
+    private static final Pattern ENGLISH_TIME = Pattern.compile(
+            B0 + "(\\d{1,2})(?::(\\d{2}))?\\s*(am|pm|a\\.m\\.|p\\.m\\.)(?![\\p{L}\\p{N}])", Pattern.CASE_INSENSITIVE);
+    private static final Pattern CLOCK_TIME = Pattern.compile(B0 + "(\\d{1,2}):(\\d{2})" + PARTICLE);
+    private static final Pattern NAMED_TIME = Pattern.compile(B0 + "(정오|자정|noon|midnight)" + PARTICLE, Pattern.CASE_INSENSITIVE);
+
+    private static final Map<String, Integer> RELATIVE_DAYS = Map.ofEntries(
+            Map.entry("그저께", -2), Map.entry("그제", -2), Map.entry("어제", -1), Map.entry("yesterday", -1),
+            Map.entry("오늘", 0), Map.entry("today", 0), Map.entry("tonight", 0),
+            Map.entry("내일", 1), Map.entry("tomorrow", 1), Map.entry("모레", 2), Map.entry("글피", 3));
+    private static final String KOREAN_WEEKDAYS = "월화수목금토일";
+
+    // 동작 낱말. 한글은 앞부분이 같으면("완료했어"), 영어는 낱말이 같으면 맞는다.
+    private static final Map<Kind, List<String>> VERBS = Map.of(
+            Kind.COPY, List.of("복사", "copy", "duplicate"),
+            Kind.COMPLETE, List.of("완료", "끝났", "끝냈", "마쳤", "체크", "했어", "했음", "done", "complete", "completed", "finished", "finish"),
+            Kind.DELETE, List.of("삭제", "취소", "지워", "지우", "빼줘", "없애", "delete", "remove", "cancel"),
+            Kind.ADD, List.of("추가", "등록", "잡아", "넣어", "add", "schedule", "create", "book"));
+    // 빼고 보는 낱말.
+    private static final Set<String> FILLERS = Set.of("좀", "해", "해줘", "해줘요", "해주세요", "줘", "주세요", "일정", "일정을", "일정은", "일정이",
+            "일정도", "please", "at", "on", "for", "to", "from", "my", "the", "a", "an", "event", "events", "as");
+    // 이런 낱말이 있으면 질문, 여러 일, 수정/이동처럼 네 가지 동작으로 딱 떨어지지 않는 명령이다.
+    private static final List<String> AMBIGUOUS_PREFIXES = List.of("뭐", "무슨", "언제", "어떤", "어떻", "몇", "알려", "보여", "정리", "요약",
+            "확인", "찾", "모든", "전부", "말고", "대신", "그리고", "옮", "이동", "변경", "바꿔", "바꾸", "수정", "미뤄", "미루", "연기", "매일", "매주", "반복");
+    private static final Set<String> AMBIGUOUS_WORDS = Set.of("안", "못", "다", "또", "what", "when", "which", "show", "list", "find", "and", "but",
+            "not", "all", "every", "move", "reschedule", "change", "rename", "daily", "weekly", "or", "if");
+    // 제목 끝에 붙은 조사. 더하기는 목적격만, 완료/삭제는 주격 등도 떼어 보고 맞춘다.
+    private static final Pattern OBJECT_PARTICLE = Pattern.compile("(\\S)(을|를)$");
+    private static final Pattern SUBJECT_PARTICLE = Pattern.compile("(\\S)(을|를|이|가|은|는|도)$");
+    // 이렇게 끝나는 말은 일정 제목보다 문장(서술어)일 가능성이 크다.
+    private static final Pattern PREDICATE_ENDING = Pattern.compile(".*(다|대|요|야|와|어|지|네|까|니)$");
+
+    private final CalendarDataManager dataManager;
+    private final Clock clock;
+    private final double threshold;
+
+    public LocalCommandParser(CalendarDataManager dataManager) {
+        this(dataManager, Clock.systemDefaultZone(), DEFAULT_THRESHOLD);
+    }
+
+    LocalCommandParser(CalendarDataManager dataManager, Clock clock, double threshold) {
+        this.dataManager = dataManager;
+        this.clock = clock;
+        this.threshold = threshold;
+    }
+
+    /**
+     * 확신할 수 있으면 {"actions": [동작]} 을, 아니면 빈 값을 돌려준다.
+     */
+    public Optional<JsonObject> parse(String command) {
+        Parse parse = analyze(command);
+        if (parse == null || parse.confidence() < threshold) return Optional.empty();
+        JsonArray actions = new JsonArray();
+        actions.add(parse.action());
+        JsonObject response = new JsonObject();
+        response.add("actions", actions);
+        return Optional.of(response);
+    }
+
+    /**
+     * 문턱과 상관없이 가장 그럴듯한 해석과 확신도. 동작을 전혀 알아볼 수 없으면 null.
+     */
+    Parse analyze(String command) {
+        if (command == null || command.isBlank()) return null;
+        String text = command.strip().replaceAll("\\s+", " ");
+        if (text.contains("?") || text.contains(",")) return null;
+        LocalDate today = LocalDate.now(clock);
+
+        StringBuilder rest = new StringBuilder(text);
+        List<Found<LocalDate>> dates = findDates(rest, today);
+        if (dates == null) return null;
+        List<Found<int[]>> times = findTimes(rest);
+
+        Kind kind = null;
+        boolean explicitAdd = false;
+        List<String> titleWords = new ArrayList<>();
+        for (String token : rest.toString().trim().split("\\s+")) {
+            if (token.isEmpty()) continue;
+            String lower = token.toLowerCase(Locale.ROOT);
+            if (AMBIGUOUS_WORDS.contains(lower) || AMBIGUOUS_PREFIXES.stream().anyMatch(lower::startsWith)) return null;
+            Kind verb = verbOf(lower);
+            if (verb != null) {
+                if (kind != null && kind != verb) return null;
+                kind = verb;
+                explicitAdd |= verb == Kind.ADD;
+                continue;
+            }
+            if (!FILLERS.contains(lower)) titleWords.add(token);
+        }
+        if (kind == null) kind = Kind.ADD;
+
+        return switch (kind) {
+            case COPY -> copy(dates, titleWords);
+            case COMPLETE, DELETE -> completeOrDelete(kind, dates, times, titleWords, today);
+            case ADD -> add(dates, times, titleWords, explicitAdd);
+        };
+    }
+
+    private Parse copy(List<Found<LocalDate>> dates, List<String> titleWords) {
+        if (dates.size() != 2) return null;
+        Found<LocalDate> source = dates.get(0);
+        Found<LocalDate> destination = dates.get(1);
+        // "내일로 어제 일정 복사" 처럼 '로' 가 붙은 쪽이 대상이다.
+        if (isDirection(source.particle()) && !isDirection(destination.particle())) {
+            Found<LocalDate> swap = source;
+            source = destination;
+            destination = swap;
+        }
+        JsonObject action = new JsonObject();
+        action.addProperty("action", "copy_events");
+        action.addProperty("source_date", format(source.value()));
+        action.addProperty("destination_date", format(destination.value()));
+        // 남은 낱말이 있으면("어제 운동 내일로 복사") 일부만 복사하라는 뜻일 수 있다.
+        return new Parse(action, titleWords.isEmpty() ? 0.95 : 0.5);
+    }
+
+    private Parse completeOrDelete(Kind kind, List<Found<LocalDate>> dates, List<Found<int[]>> times, List<String> titleWords, LocalDate today) {
+        if (dates.size() > 1 || titleWords.isEmpty()) return null;
+        LocalDate date = dates.isEmpty() ? today : dates.get(0).value();
+        String wanted = String.join(" ", titleWords);
+
+        List<Event> events = dataManager.getEventsForDate(date);
+        List<Event> matches = matching(events, key(wanted));
+        double confidence = 0.95;
+        if (matches.isEmpty()) {
+            // 조사가 붙은 제목("운동을", "미팅이")도 맞춰 본다.
+            matches = matching(events, key(stripParticle(wanted, SUBJECT_PARTICLE)));
+        }
+        if (matches.isEmpty()) {
+            String wantedKey = key(stripParticle(wanted, SUBJECT_PARTICLE));
+            matches = events.stream().filter(event -> {
+                String title = key(event.getTitle());
+                return !wantedKey.isEmpty() && (title.contains(wantedKey) || wantedKey.contains(title));
+            }).toList();
+            // 완료는 다시 눌러 되돌릴 수 있지만 삭제는 그렇지 않다. "점심 약속 삭제" 로 "점심" 을 지우면 안 되므로
+            // 일부만 맞은 제목은 삭제할 때 문턱 아래로 두어 Gemini 에 맡긴다.
+            confidence = kind == Kind.DELETE ? 0.6 : 0.85;
+        }
+        if (matches.size() != 1) return null;
+        Event event = matches.get(0);
+        // 완료는 뒤집기이므로 이미 완료한 일정을 다시 누르면 완료가 풀린다. 그런 뜻인지는 알 수 없다.
+        if (kind == Kind.COMPLETE && event.isCompleted()) confidence -= 0.5;
+        if (dates.isEmpty()) confidence -= 0.1;
+        if (!times.isEmpty()) confidence -= 0.1;
+
+        JsonObject target = new JsonObject();
+        target.addProperty("title", event.getTitle());
+        target.addProperty("date", format(date));
+        JsonArray targets = new JsonArray();
+        targets.add(target);
+        JsonObject action = new JsonObject();
+        action.addProperty("action", kind == Kind.COMPLETE ? "complete_events" : "delete_events");
+        action.add("events", targets);
+        return new Parse(action, confidence);
+    }
+
+    private Parse add(List<Found<LocalDate>> dates, List<Found<int[]>> times, List<String> titleWords, boolean explicitAdd) {
+        if (dates.size() > 1 || times.size() > 1 || titleWords.isEmpty()) return null;
+        String title = stripParticle(String.join(" ", titleWords), OBJECT_PARTICLE);
+        if (title.isEmpty()) return null;
+
+        double confidence = dates.isEmpty() ? 0.5 : 0.85;
+        if (!times.isEmpty()) confidence += 0.05;
+        if (explicitAdd) confidence += 0.05;
+        if (title.length() > 30) confidence -= 0.2;
+        if (!explicitAdd && PREDICATE_ENDING.matcher(title).matches()) confidence -= 0.2;
+        int[] time = times.isEmpty() ? null : times.get(0).value();
+        // 오전/오후 없는 1~6시는 새벽인지 오후인지 알 수 없다.
+        if (time != null && time[2] == 1) confidence -= 0.3;
+
+        JsonObject event = new JsonObject();
+        event.addProperty("title", title);
+        event.addProperty("date", format(dates.isEmpty() ? LocalDate.now(clock) : dates.get(0).value()));
+        if (time != null) event.addProperty("time", String.format("%02d:%02d", time[0], time[1]));
+        JsonArray events = new JsonArray();
+        events.add(event);
+        JsonObject action = new JsonObject();
+        action.addProperty("action", "add_events");
+        action.add("events", events);
+        return new Parse(action, Math.min(confidence, 1.0));
+    }
+
+    // 날짜 표현을 찾아 지운다. 달력에 없는 날짜(2월 30일 등)가 있으면 null.
+    private static List<Found<LocalDate>> findDates(StringBuilder rest, LocalDate today) {
+        List<Found<LocalDate>> dates = new ArrayList<>();
+        try {
+            collect(ISO_DATE, rest, dates, m -> LocalDate.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)), Integer.parseInt(m.group(3))));
+            collect(KOREAN_MONTH_DAY, rest, dates, m -> LocalDate.of(today.getYear(), Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))));
+            collect(SLASH_MONTH_DAY, rest, dates, m -> LocalDate.of(today.getYear(), Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))));
+        } catch (DateTimeException e) {
+            return null;
+        }
+        collect(DAYS_LATER, rest, dates, m -> today.plusDays(Integer.parseInt(m.group(1) != null ? m.group(1) : m.group(2))));
+        collect(RELATIVE_DAY, rest, dates, m -> today.plusDays(RELATIVE_DAYS.get(m.group(1).toLowerCase(Locale.ROOT))));
+        collect(KOREAN_WEEKDAY, rest, dates, m -> {
+            DayOfWeek day = DayOfWeek.of(KOREAN_WEEKDAYS.indexOf(m.group(2)) + 1);
+            String week = m.group(1) == null ? "" : m.group(1).replace(" ", "");
+            if (week.equals("이번주")) return today.with(DayOfWeek.MONDAY).with(TemporalAdjusters.nextOrSame(day));
+            if (!week.isEmpty()) return today.with(DayOfWeek.MONDAY).plusWeeks(1).with(TemporalAdjusters.nextOrSame(day));
+            return today.with(TemporalAdjusters.nextOrSame(day));
+        });
+        collect(ENGLISH_WEEKDAY, rest, dates, m -> {
+            DayOfWeek day = DayOfWeek.valueOf(m.group(2).toUpperCase(Locale.ROOT));
+            // "next friday" 는 오늘을 빼고 다가오는 금요일로 본다.
+            return "next".equalsIgnoreCase(m.group(1)) ? today.with(TemporalAdjusters.next(day)) : today.with(TemporalAdjusters.nextOrSame(day));
+        });
+        dates.sort(Comparator.comparingInt(Found::start));
+        return dates;
+    }
+
+    // 시각을 찾아 지운다. 값은 {시, 분, 오전/오후가 애매하면 1}.
+    private static List<Found<int[]>> findTimes(StringBuilder rest) {
+        List<Found<int[]>> times = new ArrayList<>();
+        collect(KOREAN_TIME, rest, times, m -> {
+            int hour = Integer.parseInt(m.group(2));
+            int minute = m.group(3) != null ? Integer.parseInt(m.group(3)) : m.group(4) != null ? 30 : 0;
+            String meridiem = m.group(1);
+            boolean ambiguous = meridiem == null && hour >= 1 && hour <= 6;
+            boolean night = meridiem != null && (meridiem.equals("저녁") || meridiem.equals("밤"));
+            if (meridiem != null && (meridiem.equals("오후") || night) && hour < 12) hour += 12;
+            if (meridiem != null && (meridiem.equals("오전") || meridiem.equals("아침") || meridiem.equals("새벽")) && hour == 12) hour = 0;
+            // 밤/저녁 12시는 보통 그날이 끝나는 자정, 곧 다음 날 00:00 이지만 그날 00:00 이나 정오로 읽힐 수도 있다.
+            // 날짜까지 바꿔야 하는 표현이므로 애매하다고 보고 Gemini 에 맡긴다.
+            if (night && hour == 12) {
+                hour = 0;
+                ambiguous = true;
+            }
+            return new int[] {hour, minute, ambiguous ? 1 : 0};
+        });
+        collect(ENGLISH_TIME, rest, times, m -> {
+            int hour = Integer.parseInt(m.group(1)) % 12;
+            if (m.group(3).toLowerCase(Locale.ROOT).startsWith("p")) hour += 12;
+            return new int[] {hour, m.group(2) != null ? Integer.parseInt(m.group(2)) : 0, 0};
+        });
+        collect(CLOCK_TIME, rest, times, m -> new int[] {Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)), 0});
+        collect(NAMED_TIME, rest, times, m -> {
+            String name = m.group(1).toLowerCase(Locale.ROOT);
+            return new int[] {name.equals("정오") || name.equals("noon") ? 12 : 0, 0, 0};
+        });
+        times.removeIf(found -> found.value()[0] > 23 || found.value()[1] > 59);
+        return times;
+    }
+
+    private interface MatchReader<T> {
+        T read(Matcher matcher);
+    }
+
+    // 찾은 자리는 같은 길이의 공백으로 덮어서 다른 패턴과 제목에 다시 걸리지 않게 한다.
+    private static <T> void collect(Pattern pattern, StringBuilder rest, List<Found<T>> found, MatchReader<T> reader) {
+        Matcher matcher = pattern.matcher(rest);
+        List<int[]> spans = new ArrayList<>();
+        while (matcher.find()) {
+            int particleGroup = matcher.groupCount();
+            String particle = matcher.group(particleGroup);
+            found.add(new Found<>(matcher.start(), reader.read(matcher), particle == null ? "" : particle));
+            spans.add(new int[] {matcher.start(), matcher.end()});
+        }
+        for (int[] span : spans) {
+            for (int i = span[0]; i < span[1]; i++) rest.setCharAt(i, ' ');
+        }
+    }
+
+    private static Kind verbOf(String token) {
+        for (Map.Entry<Kind, List<String>> entry : VERBS.entrySet()) {
+            for (String verb : entry.getValue()) {
+                boolean ascii = verb.chars().allMatch(c -> c < 0x80);
+                if (ascii ? token.equals(verb) : token.startsWith(verb)) return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private static List<Event> matching(List<Event> events, String wantedKey) {
+        return events.stream().filter(event -> key(event.getTitle()).equals(wantedKey)).toList();
+    }
+
+    // 제목 비교용: 공백을 없애고 소문자로.
+    private static String key(String title) {
+        return title.replaceAll("\\s+", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String stripParticle(String text, Pattern particle) {
+        return particle.matcher(text).replaceFirst("$1").strip();
+    }
+
+    private static boolean isDirection(String particle) {
+        return particle.equals("로") || particle.equals("으로");
+    }
+
+    private static String format(LocalDate date) {
+        return date.format(DateTimeFormatter.ISO_LOCAL_DATE);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 달력 한 달치 화면 모델. 6주 x 7일 칸마다 날짜와 그 날의 (시간순) 일정, 오늘/완료 여부를 미리 계산해 둔다.
+ * 불변이므로 백그라운드 스레드에서 만들어 FX 스레드로 그대로 넘길 수 있다.
+ */
+public record MonthModel(YearMonth month, LocalDate today, List<DayModel> slots) {
+
+    public static final int SLOT_COUNT = 42;
+
+    /**
+     * 하루 칸. allCompleted 는 일정이 있고 모두 완료된 날.
+     */
+    public record DayModel(LocalDate date, List<Event> events, boolean today, boolean allCompleted) {}
+
+    /**
+     * 저장소에서 그 달의 일정을 한 번에 읽어 모델을 만든다. FX 스레드가 아닌 곳에서 부른다.
+     */
+    public static MonthModel build(CalendarDataManager dataManager, YearMonth month, LocalDate today) {
+        Map<LocalDate, List<Event>> events = dataManager.getEventsInRange(month.atDay(1), month.atEndOfMonth());
+        return layout(month, today, events);
+    }
+
+    /**
+     * 날짜만 있고 일정은 비어 있는 모델. 진짜 모델이 준비되기 전에 바로 보여 줄 때 쓴다.
+     */
+    public static MonthModel skeleton(YearMonth month, LocalDate today) {
+        return layout(month, today, Map.of());
+    }
+
+    private static MonthModel layout(YearMonth month, LocalDate today, Map<LocalDate, List<Event>> events) {
+        LocalDate firstDayOfMonth = month.atDay(1);
+        int dayOfWeekOfFirst = firstDayOfMonth.getDayOfWeek() == DayOfWeek.SUNDAY ? 0 : firstDayOfMonth.getDayOfWeek().getValue();
+        List<DayModel> slots = new ArrayList<>(SLOT_COUNT);
+        for (int slot = 0; slot < SLOT_COUNT; slot++) {
+            int dayIndex = slot - dayOfWeekOfFirst;
+            if (dayIndex < 0 || dayIndex >= month.lengthOfMonth()) {
+                slots.add(null);
+                continue;
+            }
+            LocalDate date = firstDayOfMonth.plusDays(dayIndex);
+            List<Event> dayEvents = events.getOrDefault(date, List.of());
+            boolean allCompleted = !dayEvents.isEmpty() && dayEvents.stream().allMatch(Event::isCompleted);
+            slots.add(new DayModel(date, dayEvents, date.equals(today), allCompleted));
+        }
+        return new MonthModel(month, today, Collections.unmodifiableList(slots));
+    }
+}
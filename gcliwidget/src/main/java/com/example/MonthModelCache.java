@@ -0,0 +1,94 @@
+package com.example;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * MonthModel 을 백그라운드 스레드에서 만들어 달별로 들고 있는다.
+ * 저장소 변경 알림이 오면 바뀐 날짜가 속한 달의 모델만 버리고, 보이는 달 앞뒤 한 달은 미리 만들어 둔다.
+ */
+public class MonthModelCache implements CalendarChangeListener {
+
+    // 보이는 달 기준으로 이 범위 밖의 모델은 버린다.
+    private static final int RETAINED_MONTHS = 2;
+
+    private final CalendarDataManager dataManager;
+    private final Clock clock;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "month-model");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<YearMonth, CompletableFuture<MonthModel>> models = new ConcurrentHashMap<>();
+
+    public MonthModelCache(CalendarDataManager dataManager) {
+        this(dataManager, Clock.systemDefaultZone());
+    }
+
+    MonthModelCache(CalendarDataManager dataManager, Clock clock) {
+        this.dataManager = dataManager;
+        this.clock = clock;
+        dataManager.addChangeListener(this);
+    }
+
+    /**
+     * 그 달의 모델. 이미 만들어져 있으면 끝난 future 를, 아니면 백그라운드에서 만드는 future 를 돌려준다.
+     */
+    public CompletableFuture<MonthModel> get(YearMonth month) {
+        CompletableFuture<MonthModel> future = models.get(month);
+        if (future != null && future.isDone() && (future.isCompletedExceptionally() || !isCurrent(future.getNow(null)))) {
+            models.remove(month, future);
+        }
+        return models.computeIfAbsent(month, m -> CompletableFuture.supplyAsync(
+                () -> MonthModel.build(dataManager, m, LocalDate.now(clock)), executor));
+    }
+
+    /**
+     * 이미 만들어진 최신 모델이 있으면 돌려주고, 없으면 null.
+     */
+    public MonthModel getIfReady(YearMonth month) {
+        CompletableFuture<MonthModel> future = models.get(month);
+        if (future == null || !future.isDone() || future.isCompletedExceptionally()) return null;
+        MonthModel model = future.getNow(null);
+        return isCurrent(model) ? model : null;
+    }
+
+    /**
+     * center 앞뒤 한 달을 미리 만들고, 멀리 떨어진 달의 모델은 버린다.
+     */
+    public void prefetchAround(YearMonth center) {
+        models.keySet().removeIf(month -> Math.abs(center.until(month, ChronoUnit.MONTHS)) > RETAINED_MONTHS);
+        get(center.minusMonths(1));
+        get(center.plusMonths(1));
+    }
+
+    /**
+     * 모델을 만든 뒤 그 달이 바뀌었거나 날짜가 넘어갔으면 false. 이때는 get 으로 다시 받는다.
+     */
+    public boolean isCurrent(MonthModel model) {
+        if (model == null || !model.today().equals(LocalDate.now(clock))) return false;
+        CompletableFuture<MonthModel> future = models.get(model.month());
+        return future != null && future.getNow(null) == model;
+    }
+
+    // 저장소 잠금 안에서 불리므로 맵에서 빼기만 한다. 만들고 있던 모델은 끝나도 isCurrent 에서 걸러진다.
+    @Override
+    public void onCalendarChanged(List<CalendarChange> changes) {
+        for (LocalDate date : CalendarChange.datesOf(changes)) {
+            models.remove(YearMonth.from(date));
+        }
+    }
+
+    public void close() {
+        dataManager.removeChangeListener(this);
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,238 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * 캘린더 스냅샷을 월 단위 세그먼트 파일(yyyy-MM.json / yyyy-MM.bin)로 나누어 보관한다.
+ * 세그먼트는 ~/.gcliwidget_calendar_notes.months/ 아래에 있고, 예전 단일 스냅샷 파일은 처음 한 번 나누어 옮긴다.
+ */
+public class MonthSegmentStore {
+
+    /**
+     * 스냅샷 파일 형식. 기본은 기존과 같은 JSON 이고, -Dgcliwidget.storage.format=binary 로 바이너리를 쓴다.
+     */
+    enum SnapshotFormat {
+        JSON(".json"), BINARY(".bin");
+
+        private final String extension;
+
+        SnapshotFormat(String extension) {
+            this.extension = extension;
+        }
+
+        SnapshotFormat other() {
+            return this == JSON ? BINARY : JSON;
+        }
+
+        static SnapshotFormat fromSystemProperties() {
+            return "binary".equalsIgnoreCase(System.getProperty("gcliwidget.storage.format")) ? BINARY : JSON;
+        }
+    }
+
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM");
+
+    private final Path notesFile;
+    private final String baseName;
+    private final Path segmentDir;
+    private final SnapshotFormat format;
+    private final Gson gson;
+
+    public MonthSegmentStore(Path notesFile, SnapshotFormat format, Gson gson) {
+        this.notesFile = notesFile;
+        this.baseName = notesFile.getFileName().toString().replaceFirst("\\.json$", "");
+        this.segmentDir = notesFile.resolveSibling(baseName + ".months");
+        this.format = format;
+        this.gson = gson;
+    }
+
+    /**
+     * 세그먼트 디렉터리가 없으면 예전 단일 스냅샷을 월별로 나누어 만든다.
+     * 임시 디렉터리에 다 쓴 뒤 이름을 바꾸므로, 중간에 죽으면 다음 실행에서 처음부터 다시 한다.
+     */
+    public void migrateLegacySnapshot() throws IOException {
+        if (Files.isDirectory(segmentDir)) {
+            return;
+        }
+        Path tempDir = segmentDir.resolveSibling(segmentDir.getFileName() + ".tmp");
+        deleteRecursively(tempDir);
+        Files.createDirectories(tempDir);
+
+        Path legacyFile = newestExisting(notesFile, notesFile.resolveSibling(baseName + SnapshotFormat.BINARY.extension));
+        if (legacyFile != null) {
+            SnapshotFormat legacyFormat = legacyFile.equals(notesFile) ? SnapshotFormat.JSON : SnapshotFormat.BINARY;
+            Map<YearMonth, Map<LocalDate, List<Event>>> byMonth = new HashMap<>();
+            readFile(legacyFile, legacyFormat).forEach((date, events) ->
+                    byMonth.computeIfAbsent(YearMonth.from(date), k -> new HashMap<>()).put(date, events));
+            for (Map.Entry<YearMonth, Map<LocalDate, List<Event>>> entry : byMonth.entrySet()) {
+                writeFile(tempDir.resolve(fileName(entry.getKey(), format)), format, entry.getValue());
+            }
+            System.out.println("Split calendar snapshot " + legacyFile.getFileName() + " into " + byMonth.size() + " month segment(s).");
+        }
+        Files.move(tempDir, segmentDir, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public Set<YearMonth> listMonths() {
+        Set<YearMonth> months = new HashSet<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(segmentDir)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                int dot = name.indexOf('.');
+                if (dot != 7 || name.endsWith(".tmp")) continue;
+                try {
+                    months.add(YearMonth.parse(name.substring(0, dot), MONTH_FORMATTER));
+                } catch (DateTimeParseException e) {
+                    // 세그먼트가 아닌 파일은 무시
+                }
+            }
+        } catch (NoSuchFileException e) {
+            return months;
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        return months;
+    }
+
+    /**
+     * 한 달치 세그먼트를 읽는다. 다른 형식의 파일이 더 최신이면 그것을 읽어 설정된 형식으로 바꿔 둔다.
+     */
+    public Map<LocalDate, List<Event>> readMonth(YearMonth month) throws IOException {
+        Path preferredFile = segmentDir.resolve(fileName(month, format));
+        Path otherFile = segmentDir.resolve(fileName(month, format.other()));
+        Path newest = newestExisting(preferredFile, otherFile);
+        if (newest == null) {
+            return new HashMap<>();
+        }
+        if (newest.equals(otherFile)) {
+            Map<LocalDate, List<Event>> converted = readFile(otherFile, format.other());
+            writeMonth(month, converted);
+            return converted;
+        }
+        return readFile(preferredFile, format);
+    }
+
+    /**
+     * readMonth 와 같되 아무것도 쓰지 않는다. 저장 스레드가 같은 달을 접는 동안 다른 스레드에서 읽어도 된다.
+     * 다른 형식의 파일이 더 최신이면 바꾸지 않고 그 파일을 그대로 읽는다.
+     */
+    public Map<LocalDate, List<Event>> peekMonth(YearMonth month) throws IOException {
+        Path preferredFile = segmentDir.resolve(fileName(month, format));
+        Path otherFile = segmentDir.resolve(fileName(month, format.other()));
+        Path newest = newestExisting(preferredFile, otherFile);
+        if (newest == null) {
+            return new HashMap<>();
+        }
+        try {
+            return readFile(newest, newest.equals(otherFile) ? format.other() : format);
+        } catch (NoSuchFileException e) {
+            // 그 사이 압축이 이 달을 비워 지웠다.
+            return new HashMap<>();
+        }
+    }
+
+    public void writeMonth(YearMonth month, Map<LocalDate, List<Event>> days) throws IOException {
+        Path targetFile = segmentDir.resolve(fileName(month, format));
+        if (days.isEmpty()) {
+            Files.deleteIfExists(targetFile);
+            Files.deleteIfExists(segmentDir.resolve(fileName(month, format.other())));
+            return;
+        }
+        writeFile(targetFile, format, days);
+    }
+
+    /**
+     * 날짜별 최신 상태(빈 목록은 삭제)를 해당 월 세그먼트에 접어 넣는다.
+     */
+    public void applyDays(Map<LocalDate, List<Event>> changedDays) throws IOException {
+        Map<YearMonth, Map<LocalDate, List<Event>>> byMonth = new HashMap<>();
+        changedDays.forEach((date, events) ->
+                byMonth.computeIfAbsent(YearMonth.from(date), k -> new HashMap<>()).put(date, events));
+        for (Map.Entry<YearMonth, Map<LocalDate, List<Event>>> entry : byMonth.entrySet()) {
+            Map<LocalDate, List<Event>> days = readMonth(entry.getKey());
+            entry.getValue().forEach((date, events) -> {
+                if (events.isEmpty()) {
+                    days.remove(date);
+                } else {
+                    days.put(date, events);
+                }
+            });
+            writeMonth(entry.getKey(), days);
+        }
+    }
+
+    private Map<LocalDate, List<Event>> readFile(Path file, SnapshotFormat fileFormat) throws IOException {
+        Map<LocalDate, List<Event>> loaded;
+        if (fileFormat == SnapshotFormat.BINARY) {
+            loaded = BinarySnapshotCodec.read(file);
+        } else {
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                Type type = new TypeToken<HashMap<LocalDate, List<Event>>>() {}.getType();
+                loaded = gson.fromJson(reader, type);
+            }
+        }
+        if (loaded == null) return new HashMap<>();
+        loaded.values().forEach(eventList -> eventList.forEach(Event::ensureId));
+        return loaded;
+    }
+
+    // 임시 파일에 끝까지 쓴 뒤 rename 하므로, 도중에 죽어도 기존 세그먼트는 그대로 남는다.
+    private void writeFile(Path targetFile, SnapshotFormat fileFormat, Map<LocalDate, List<Event>> days) throws IOException {
+        Path tempFile = targetFile.resolveSibling(targetFile.getFileName() + ".tmp");
+        if (fileFormat == SnapshotFormat.BINARY) {
+            BinarySnapshotCodec.write(tempFile, days);
+        } else {
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                gson.toJson(days, writer);
+            }
+        }
+        try {
+            Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempFile, targetFile, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static String fileName(YearMonth month, SnapshotFormat fileFormat) {
+        return month.format(MONTH_FORMATTER) + fileFormat.extension;
+    }
+
+    private static Path newestExisting(Path first, Path second) throws IOException {
+        boolean firstExists = Files.exists(first);
+        boolean secondExists = Files.exists(second);
+        if (firstExists && secondExists) {
+            return Files.getLastModifiedTime(second).compareTo(Files.getLastModifiedTime(first)) > 0 ? second : first;
+        }
+        return firstExists ? first : (secondExists ? second : null);
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) return;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path file : stream) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+}
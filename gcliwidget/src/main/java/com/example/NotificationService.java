@@ -7,103 +7,181 @@ import java.awt.SystemTray;
 import java.awt.Toolkit;
 import java.awt.TrayIcon;
 import java.net.URL;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
 import java.time.temporal.ChronoUnit;
-import java.util.HashSet;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
+import java.util.PriorityQueue;
 import java.util.Set;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
 
 import javafx.application.Platform;
 
+/**
+ * 일정 알림. 오늘과 내일 일정의 알림 시각을 우선순위 큐에 넣어 두고, 다음 알림 시각까지 잠들었다가 깨어난다.
+ * 큐는 알림 스레드에서만 만지고, 저장소가 바뀌면 바뀐 날짜의 알림만 다시 계산한다.
+ */
 public class NotificationService {
-    private static final NotificationService instance = new NotificationService();
-    private ScheduledExecutorService scheduler;
+    // 처음 쓸 때 만든다. 만들면서 저장소를 읽으므로 클래스 초기화 때 만들지 않는다.
+    private static NotificationService instance;
+    private volatile ScheduledExecutorService scheduler;
     private final CalendarDataManager dataManager;
-    private final Set<String> notifiedEventIds;
+    private final NotifiedReminderTracker notifiedReminders;
+    private final Clock clock;
+    private final BiConsumer<Event, Long> notifier;
 
     private static final long NOTIFICATION_LEAD_TIME_MINUTES = 60; // 실제 운영시 60분
-    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+    // 시작 시각이 이만큼 지난 일정까지는 늦게라도 알린다.
+    private static final Duration LATE_GRACE = Duration.ofMinutes(1);
+    // 시스템 시계가 바뀌거나 절전에서 깨어난 경우를 위해, 알림이 없어도 이 간격마다 한 번은 깨어나 다시 본다.
+    private static final Duration MAX_SLEEP = Duration.ofMinutes(15);
+
+    // 알림 시각, 일정 시작 시각, 날짜와 알릴 일정. 저장소의 일정 객체는 불변이므로 그대로 들고 있는다.
+    private record Reminder(LocalDateTime fireAt, LocalDateTime startsAt, LocalDate date, Event event) {}
+
+    private final PriorityQueue<Reminder> reminders = new PriorityQueue<>(Comparator.comparing(Reminder::fireAt));
+    // 큐가 담고 있는 첫 날짜. 오늘이 바뀌면 큐를 새로 채운다.
+    private LocalDate horizonStart;
+    private ScheduledFuture<?> wakeup;
+    private final CalendarChangeListener changeListener = changes -> runSafely(() -> onDatesChanged(CalendarChange.datesOf(changes)));
 
     private NotificationService() {
-        this.dataManager = CalendarDataManager.getInstance();
-        this.notifiedEventIds = new HashSet<>();
+        this(CalendarDataManager.getInstance(), Clock.systemDefaultZone(), null);
+    }
+
+    NotificationService(CalendarDataManager dataManager, Clock clock, BiConsumer<Event, Long> notifier) {
+        this.dataManager = dataManager;
+        this.clock = clock;
+        this.notifier = notifier != null ? notifier : this::showNotification;
+        this.notifiedReminders = new NotifiedReminderTracker(dataManager.siblingFile(".notified.json"));
     }
 
-    public static NotificationService getInstance() {
+    public static synchronized NotificationService getInstance() {
+        if (instance == null) {
+            instance = new NotificationService();
+        }
         return instance;
     }
 
-    public void start() {
+    public synchronized void start() {
         if (scheduler != null && !scheduler.isShutdown()) {
             return;
         }
         scheduler = Executors.newSingleThreadScheduledExecutor();
-        scheduler.scheduleAtFixedRate(this::checkAndNotify, 0, 1, TimeUnit.MINUTES);
+        // 알림 스레드에서 받으므로 큐를 바로 고칠 수 있다.
+        dataManager.addChangeListener(changeListener, scheduler);
+        scheduler.execute(this::wakeUp);
         System.out.println("NotificationService started.");
     }
 
-    public void stop() {
+    public synchronized void stop() {
         if (scheduler != null) {
-            scheduler.shutdown();
+            dataManager.removeChangeListener(changeListener);
+            // 예약된 다음 깨어남이 남아 있으면 shutdown() 만으로는 그때까지 스레드가 살아 있으므로 바로 끊는다.
+            scheduler.shutdownNow();
             System.out.println("NotificationService stopped.");
         }
     }
 
-    // In NotificationService.java
+    // 바뀐 날짜 중 큐가 담고 있는 오늘~내일의 알림만 다시 계산한다.
+    private void onDatesChanged(Set<LocalDate> dates) {
+        if (horizonStart != null) {
+            for (LocalDate date : dates) {
+                if (date.isBefore(horizonStart) || date.isAfter(horizonStart.plusDays(1))) continue;
+                reminders.removeIf(reminder -> reminder.date().equals(date));
+                addReminders(date, dataManager.getEventsForDate(date), LocalDateTime.now(clock));
+            }
+        }
+        fireDue();
+    }
 
-private void checkAndNotify() {
-    // Platform.runLater(() -> {
-        try {
-            LocalDateTime now = LocalDateTime.now();
-            Map<LocalDate, List<Event>> allEvents = dataManager.getAllEvents();
-
-            for (Map.Entry<LocalDate, List<Event>> entry : allEvents.entrySet()) {
-                LocalDate date = entry.getKey();
-                if (date.isBefore(now.toLocalDate())) continue;
-
-                for (Event event : entry.getValue()) {
-                    if (notifiedEventIds.contains(event.getId()) || event.isCompleted()) {
-                        continue;
-                    }
-                    
-                    getEventDateTime(date, event).ifPresent(eventDateTime -> {
-                        long minutesUntilEvent = ChronoUnit.MINUTES.between(now, eventDateTime);
-
-                        if (minutesUntilEvent <= NOTIFICATION_LEAD_TIME_MINUTES && minutesUntilEvent >= -1) { 
-                            showNotification(event, minutesUntilEvent);
-                            notifiedEventIds.add(event.getId());
-                        }
-                    });
-                }
+    private void wakeUp() {
+        runSafely(() -> {
+            LocalDate today = LocalDate.now(clock);
+            if (!today.equals(horizonStart)) {
+                refill(today);
             }
+            fireDue();
+        });
+    }
+
+    private void runSafely(Runnable task) {
+        try {
+            task.run();
         } catch (Exception e) {
             System.err.println("Error during notification check: " + e.getMessage());
             e.printStackTrace();
+        } finally {
+            scheduleWakeup();
         }
-    // });
-}
-    
-    private Optional<LocalDateTime> getEventDateTime(LocalDate date, Event event) {
-        if (event.getTime() == null || event.getTime().isBlank()) {
-            return Optional.empty();
+    }
+
+    // 알림 대상은 앞으로 NOTIFICATION_LEAD_TIME_MINUTES 안의 일정뿐이므로 오늘~내일만 담는다.
+    private void refill(LocalDate today) {
+        reminders.clear();
+        horizonStart = today;
+        LocalDateTime now = LocalDateTime.now(clock);
+        notifiedReminders.expire(now.minus(LATE_GRACE));
+        Map<LocalDate, List<Event>> events = dataManager.getEventsInRange(today, today.plusDays(1));
+        events.forEach((date, dayEvents) -> addReminders(date, dayEvents, now));
+    }
+
+    private void addReminders(LocalDate date, List<Event> events, LocalDateTime now) {
+        for (Event event : events) {
+            if (event.isCompleted()) continue;
+            int minute = event.getMinuteOfDay();
+            if (minute == Event.UNTIMED || minute == Event.INVALID_TIME) continue;
+            LocalDateTime startsAt = date.atTime(minute / 60, minute % 60);
+            // 시간을 고치거나 옮긴 일정은 시작 시각이 달라지므로 다시 알린다.
+            if (now.isAfter(startsAt.plus(LATE_GRACE)) || notifiedReminders.wasNotified(event.getId(), startsAt)) continue;
+            reminders.add(new Reminder(startsAt.minusMinutes(NOTIFICATION_LEAD_TIME_MINUTES), startsAt, date, event));
         }
-        try {
-            LocalTime time = LocalTime.parse(event.getTime(), TIME_FORMATTER);
-            return Optional.of(LocalDateTime.of(date, time));
-        } catch (DateTimeParseException e) {
-            return Optional.empty();
+    }
+
+    private void fireDue() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        while (!reminders.isEmpty() && !reminders.peek().fireAt().isAfter(now)) {
+            Reminder reminder = reminders.poll();
+            Event event = reminder.event();
+            // 절전 등으로 너무 늦게 깨어났으면 지난 일정은 알리지 않는다.
+            if (notifiedReminders.wasNotified(event.getId(), reminder.startsAt()) || now.isAfter(reminder.startsAt().plus(LATE_GRACE))) continue;
+            // 먼저 기록해 두어, 알림 도중 앱이 꺼져도 다시 띄우지 않는다.
+            notifiedReminders.markNotified(event.getId(), reminder.startsAt());
+            notifier.accept(event, ChronoUnit.MINUTES.between(now, reminder.startsAt()));
         }
     }
 
+    // 가장 이른 알림, 자정(큐를 다시 채울 때), MAX_SLEEP 중 먼저 오는 때에 깨어난다.
+    private void scheduleWakeup() {
+        ScheduledExecutorService current = scheduler;
+        if (current == null || current.isShutdown()) return;
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime target = now.plus(MAX_SLEEP);
+        if (horizonStart != null && horizonStart.plusDays(1).atStartOfDay().isBefore(target)) {
+            target = horizonStart.plusDays(1).atStartOfDay();
+        }
+        if (!reminders.isEmpty() && reminders.peek().fireAt().isBefore(target)) {
+            target = reminders.peek().fireAt();
+        }
+        if (wakeup != null) {
+            wakeup.cancel(false);
+        }
+        try {
+            wakeup = current.schedule(this::wakeUp, Math.max(0, Duration.between(now, target).toMillis()), TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            // 이미 멈추는 중
+        }
+    }
+    
     // ---▼▼▼ [핵심 수정] private -> public 으로 변경 ▼▼▼---
     // In NotificationService.java
 
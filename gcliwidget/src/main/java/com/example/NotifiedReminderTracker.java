@@ -0,0 +1,105 @@
+package com.example;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * 이미 알린 일정을 (일정 id, 시작 시각) 으로 기억한다.
+ * 시간을 고치거나 다른 날로 옮기면 시작 시각이 달라지므로 다시 알림 대상이 되고,
+ * 시작 시각이 지난 항목은 expire 에서 지우므로 알림 구간(오늘~내일)의 일정 수를 넘게 자라지 않는다.
+ * 재시작해도 같은 알림을 다시 띄우지 않도록 저장소 옆 파일(~/.gcliwidget_calendar_notes.notified.json)에 남긴다.
+ */
+public class NotifiedReminderTracker {
+
+    private record Notified(String eventId, String startsAt) {}
+
+    private final Path file;
+    private final Gson gson = new Gson();
+    private final Set<Notified> notified = new HashSet<>();
+
+    public NotifiedReminderTracker(Path file) {
+        this.file = file;
+        load();
+    }
+
+    public synchronized boolean wasNotified(String eventId, LocalDateTime startsAt) {
+        return notified.contains(new Notified(eventId, startsAt.toString()));
+    }
+
+    public synchronized void markNotified(String eventId, LocalDateTime startsAt) {
+        if (notified.add(new Notified(eventId, startsAt.toString()))) {
+            save();
+        }
+    }
+
+    /**
+     * 시작 시각이 cutoff 이전인 항목을 지운다. 그 일정은 이미 지나서 다시 알릴 일이 없다.
+     */
+    public synchronized void expire(LocalDateTime cutoff) {
+        if (notified.removeIf(entry -> isBefore(entry, cutoff))) {
+            save();
+        }
+    }
+
+    synchronized int size() {
+        return notified.size();
+    }
+
+    private static boolean isBefore(Notified entry, LocalDateTime cutoff) {
+        try {
+            return LocalDateTime.parse(entry.startsAt()).isBefore(cutoff);
+        } catch (DateTimeParseException e) {
+            return true;
+        }
+    }
+
+    private void load() {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            Type type = new TypeToken<List<Notified>>() {}.getType();
+            List<Notified> entries = gson.fromJson(reader, type);
+            if (entries != null) {
+                entries.stream().filter(entry -> entry.eventId() != null && entry.startsAt() != null).forEach(notified::add);
+            }
+        } catch (NoSuchFileException e) {
+            // 아직 알린 일정이 없음
+        } catch (IOException | JsonParseException e) {
+            System.err.println("Could not read notified reminders: " + e.getMessage());
+        }
+    }
+
+    // 알림은 드물게 일어나므로 바뀔 때마다 통째로 다시 쓴다. 임시 파일에 쓴 뒤 rename 한다.
+    private void save() {
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                gson.toJson(new ArrayList<>(notified), writer);
+            }
+            try {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not save notified reminders: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package com.example;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 캘린더 저장 전용 스레드. 변경된 날짜를 모아 두었다가 배치 창(flushDelayMillis)마다 한 번에 로그에 기록한다.
+ * 같은 날짜가 여러 번 바뀌어도 마지막 상태 한 번만 쓰이고, 한 배치는 로그의 한 레코드라서 통째로 남거나 통째로 버려진다.
+ */
+public class PersistenceWriter {
+
+    /**
+     * 지연/내구성 정책. flushDelayMillis 가 0 이면 즉시 기록하고, fsync 가 false 면 OS 캐시에 맡긴다.
+     */
+    public record Policy(long flushDelayMillis, boolean fsync) {
+
+        public static Policy fromSystemProperties() {
+            long delay = Long.getLong("gcliwidget.persist.flushMillis", 200L);
+            boolean fsync = Boolean.parseBoolean(System.getProperty("gcliwidget.persist.fsync", "true"));
+            return new Policy(Math.max(0, delay), fsync);
+        }
+    }
+
+    private static final long FLUSH_TIMEOUT_MILLIS = 5000;
+    private static final long RETRY_DELAY_MILLIS = 1000;
+
+    private final CalendarJournal journal;
+    private final Policy policy;
+    private final int compactionThreshold;
+    private final Runnable compaction;
+    private final Object lock = new Object();
+    private final Thread thread;
+
+    private Map<LocalDate, List<Event>> pending = new LinkedHashMap<>();
+    private long firstDirtyNanos;
+    private long enqueuedSeq;
+    private long committedSeq;
+    private boolean flushRequested;
+    private boolean compactionRequested;
+    private boolean closed;
+
+    public PersistenceWriter(CalendarJournal journal, Policy policy, int compactionThreshold, Runnable compaction) {
+        this.journal = journal;
+        this.policy = policy;
+        this.compactionThreshold = compactionThreshold;
+        this.compaction = compaction;
+        this.thread = new Thread(this::run, "calendar-persistence");
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * 호출한 스레드에서 즉시 반환된다. days 의 목록은 호출 측이 이미 복사해서 넘겨야 한다.
+     * 반환값은 이 변경의 순번으로, getCommittedSeq() 가 이 값 이상이면 로그에 기록된 것이다.
+     */
+    public long markDirty(Map<LocalDate, List<Event>> days) {
+        synchronized (lock) {
+            if (pending.isEmpty()) {
+                firstDirtyNanos = System.nanoTime();
+            }
+            pending.putAll(days);
+            enqueuedSeq++;
+            lock.notifyAll();
+            return enqueuedSeq;
+        }
+    }
+
+    public long getCommittedSeq() {
+        synchronized (lock) {
+            return committedSeq;
+        }
+    }
+
+    public void requestCompaction() {
+        synchronized (lock) {
+            compactionRequested = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * 지금까지 넘겨진 변경이 모두 로그에 기록될 때까지 기다린다.
+     */
+    public void flush() {
+        synchronized (lock) {
+            long target = enqueuedSeq;
+            flushRequested = true;
+            lock.notifyAll();
+            long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(FLUSH_TIMEOUT_MILLIS);
+            try {
+                while (committedSeq < target && thread.isAlive()) {
+                    long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                    if (remaining <= 0) {
+                        System.err.println("Timed out waiting for calendar changes to be written.");
+                        return;
+                    }
+                    lock.wait(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    public void close() {
+        flush();
+        synchronized (lock) {
+            closed = true;
+            lock.notifyAll();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            Map<LocalDate, List<Event>> batch;
+            long batchSeq;
+            boolean compactNow;
+            synchronized (lock) {
+                try {
+                    while (pending.isEmpty() && !compactionRequested && !closed) {
+                        lock.wait();
+                    }
+                    if (pending.isEmpty() && !compactionRequested && closed) {
+                        return;
+                    }
+                    // 배치 창이 끝나거나 flush 가 요청될 때까지 변경을 더 모은다.
+                    long deadline = firstDirtyNanos + TimeUnit.MILLISECONDS.toNanos(policy.flushDelayMillis());
+                    while (!pending.isEmpty() && !flushRequested && !closed) {
+                        long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                        if (remaining <= 0) break;
+                        lock.wait(remaining);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                batch = pending;
+                batchSeq = enqueuedSeq;
+                pending = new LinkedHashMap<>();
+                flushRequested = false;
+                compactNow = compactionRequested;
+                compactionRequested = false;
+            }
+
+            if (!batch.isEmpty()) {
+                try {
+                    journal.append(batch, policy.fsync());
+                } catch (IOException e) {
+                    System.err.println("Failed to write calendar journal, retrying: " + e.getMessage());
+                    e.printStackTrace();
+                    requeue(batch);
+                    continue;
+                }
+            }
+            synchronized (lock) {
+                committedSeq = batchSeq;
+                lock.notifyAll();
+            }
+
+            if (compactNow || journal.getRecordCount() >= compactionThreshold) {
+                compaction.run();
+            }
+        }
+    }
+
+    // 실패한 배치를 되돌려 놓는다. 그 사이 더 새로운 상태가 들어온 날짜는 새 상태를 그대로 둔다.
+    private void requeue(Map<LocalDate, List<Event>> batch) {
+        synchronized (lock) {
+            Map<LocalDate, List<Event>> merged = new LinkedHashMap<>(batch);
+            merged.putAll(pending);
+            pending = merged;
+            firstDirtyNanos = System.nanoTime();
+            try {
+                lock.wait(RETRY_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
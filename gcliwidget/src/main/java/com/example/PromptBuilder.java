@@ -0,0 +1,116 @@
+package com.example;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Gemini 에 보낼 프롬프트를 조립한다. 규칙과 예시로 된 고정 부분(약 3KB)은 날짜가 바뀔 때만 다시 만들고,
+ * 요청마다 현재 시각, 일정 컨텍스트, 사용자 명령만 이어 붙인다. 조립한 크기와 대략의 토큰 수는 로그에 남긴다.
+ */
+public class PromptBuilder {
+
+    // 일정 컨텍스트에 쓸 토큰 예산. ScheduleContextBuilder 가 이 안에 맞춰 자르거나 요약한다.
+    public static final int CONTEXT_TOKEN_BUDGET = Integer.getInteger("gcliwidget.prompt.contextTokens", 2000);
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+    // 하루 동안 다시 쓰는 고정 부분. 날짜가 바뀌면 통째로 바꾼다.
+    private record Template(LocalDate date, String intro, String rules, int tokens) {}
+
+    private final Clock clock;
+    private Template template;
+
+    public PromptBuilder() {
+        this(Clock.systemDefaultZone());
+    }
+
+    PromptBuilder(Clock clock) {
+        this.clock = clock;
+    }
+
+    public String build(String prompt, String scheduleContext) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Template current = templateFor(now.toLocalDate());
+        StringBuilder text = new StringBuilder(current.intro().length() + current.rules().length()
+                + scheduleContext.length() + prompt.length() + 96);
+        text.append(current.intro())
+                .append("The current date is ").append(now.format(DATE_TIME_FORMAT)).append(".\n\n")
+                .append("## CURRENT SCHEDULE (for context) ##\n")
+                .append(scheduleContext).append("\n\n")
+                .append(current.rules())
+                .append(prompt);
+
+        int contextTokens = estimateTokens(scheduleContext);
+        System.out.println("Prompt: " + text.length() + " chars, ~" + (current.tokens() + contextTokens + estimateTokens(prompt))
+                + " tokens (template ~" + current.tokens() + ", context ~" + contextTokens + ")");
+        return text.toString();
+    }
+
+    private synchronized Template templateFor(LocalDate today) {
+        if (template == null || !template.date().equals(today)) {
+            template = buildTemplate(today);
+        }
+        return template;
+    }
+
+    /**
+     * 대략의 토큰 수. 영문/숫자/기호는 4글자에 1토큰, 한글 등 그 밖의 글자는 1글자에 1토큰으로 센다.
+     * 실제 토크나이저보다 약간 넉넉하게 잡아 예산을 넘기지 않도록 한다.
+     */
+    public static int estimateTokens(CharSequence text) {
+        int ascii = 0;
+        int other = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) < 0x80) ascii++;
+            else other++;
+        }
+        return (ascii + 3) / 4 + other;
+    }
+
+    private static Template buildTemplate(LocalDate today) {
+        String currentDate = today.format(DateTimeFormatter.ISO_LOCAL_DATE);
+        String tomorrow = today.plusDays(1).format(DateTimeFormatter.ISO_LOCAL_DATE);
+        String yesterday = today.minusDays(1).format(DateTimeFormatter.ISO_LOCAL_DATE);
+
+        String intro = "You are a powerful calendar assistant. Your response MUST be a single JSON object. "
+                + "The root of the object must contain one key: 'actions', which is an array of action objects. ";
+
+        String rules = "## **Core Rules** ##\n"
+                + "1.  **Event Identification Rule:** When the user asks to 'complete', 'delete', or 'modify' an event, you MUST first look at the `CURRENT SCHEDULE` context. Identify the *exact title* and *date* of the event the user is referring to. Use that exact information to construct the JSON. **DO NOT use the user's descriptive phrase (like '오늘 등록된 식사') as the `title` in the JSON.**\n"
+                + "2.  **Title Refinement Rule:** When 'add_events', refine the user's language into a concise title (e.g., '...밥먹기로 함' -> '식사').\n\n"
+
+                + "## ACTIONS FORMAT ##\n"
+                + "1. Add: {\"action\": \"add_events\", \"events\": [{\"title\": \"...\", \"date\": \"...\", \"time\": \"...\"}]}\n"
+                + "2. Complete: {\"action\": \"complete_events\", \"events\": [{\"title\": \"...\", \"date\": \"...\"}]}\n"
+                + "3. Delete: {\"action\": \"delete_events\", \"events\": [{\"title\": \"...\", \"date\": \"...\"}]}\n"
+                + "4. Copy: {\"action\": \"copy_events\", \"source_date\": \"...\", \"destination_date\": \"...\"}\n\n"
+
+                + "## EXAMPLES ##\n"
+                + "Let's assume the CURRENT SCHEDULE is:\n"
+                + "2024-05-22\n"
+                + "- [ ] 팀 미팅 (15:00)\n"
+                + "- [ ] 운동 (18:00)\n"
+                + "2024-05-23\n"
+                + "- [ ] 프로젝트 보고서 제출\n\n"
+
+                + "User: 오늘 19시에 친구랑 저녁약속\n"
+                + "Assistant: {\"actions\": [{\"action\": \"add_events\", \"events\": [{\"title\": \"친구와 저녁 약속\", \"date\": \"" + currentDate + "\", \"time\": \"19:00\"}]}]}\n\n"
+
+                + "User: 오늘 운동 끝났어 체크해줘\n"
+                + "Assistant: {\"actions\": [{\"action\": \"complete_events\", \"events\": [{\"title\": \"운동\", \"date\": \"" + currentDate + "\"}]}]}\n\n"
+
+                + "User: 오늘 팀 미팅 취소해줘\n"
+                + "Assistant: {\"actions\": [{\"action\": \"delete_events\", \"events\": [{\"title\": \"팀 미팅\", \"date\": \"" + currentDate + "\"}]}]}\n\n"
+
+                + "User: 내일 보고서 제출하는거 삭제해줘\n"
+                + "Assistant: {\"actions\": [{\"action\": \"delete_events\", \"events\": [{\"title\": \"프로젝트 보고서 제출\", \"date\": \"" + tomorrow + "\"}]}]}\n\n"
+
+                + "User: 어제 일정을 내일로 복사해줘\n"
+                + "Assistant: {\"actions\": [{\"action\": \"copy_events\", \"source_date\": \"" + yesterday + "\", \"destination_date\": \"" + tomorrow + "\"}]}\n\n"
+
+                + "Process the user's request based on the rules and CURRENT SCHEDULE: ";
+
+        return new Template(today, intro, rules, estimateTokens(intro) + estimateTokens(rules));
+    }
+}
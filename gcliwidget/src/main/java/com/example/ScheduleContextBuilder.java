@@ -0,0 +1,310 @@
+package com.example;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Gemini 프롬프트에 넣을 일정 컨텍스트를 만든다.
+ * 오늘 기준 앞뒤 일정 기간(기본 -7일 ~ +60일)과, 그 밖에서 명령과 관련 있어 보이는 날짜 몇 개만 넣는다.
+ * 날짜별로 만든 문자열은 그 날의 목록이 바뀔 때까지 다시 쓰고, 제목 단어 색인은 바뀐 날짜만 고친다.
+ * 제목 단어 색인은 만들 때 백그라운드 스레드가 저장된 달을 하나씩 읽어 채우므로, build 는 전체 기록을 읽지 않는다.
+ */
+public class ScheduleContextBuilder implements CalendarChangeListener {
+
+    private static final Pattern ISO_DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    // 명령에 나온 상대 날짜 낱말과 오늘로부터의 날 수. 예산이 모자랄 때 이 날짜들을 먼저 넣는다.
+    private static final Map<String, Integer> RELATIVE_DAYS = Map.of(
+            "그저께", -2, "그제", -2, "어제", -1, "yesterday", -1,
+            "오늘", 0, "today", 0, "내일", 1, "tomorrow", 1, "모레", 2);
+
+    // 그 날의 불변 목록과, 그 목록으로 만든 문자열과 대략의 토큰 수. 목록이 같은 객체이면 문자열도 그대로 쓸 수 있다.
+    private record RenderedDay(List<Event> source, String text, int tokens) {}
+
+    private final CalendarDataManager dataManager;
+    private final Clock clock;
+    private final int daysBefore;
+    private final int daysAfter;
+    private final int maxTailDates;
+
+    private Map<LocalDate, RenderedDay> renderedDays = new HashMap<>();
+    // 제목 단어 -> 그 단어가 든 날짜. 백그라운드에서 달 단위로 채우고, 이후에는 바뀐 날짜만 고친다.
+    private final Map<String, Set<LocalDate>> tokenIndex = new HashMap<>();
+    private final Map<LocalDate, Set<String>> dateTokens = new HashMap<>();
+    // 변경 알림은 저장소 잠금 안에서 오므로 여기에만 쌓고, 색인은 build 에서 고친다.
+    private final Set<LocalDate> dirtyDates = ConcurrentHashMap.newKeySet();
+    // 변경 알림을 받아 현재 목록으로 다시 색인한 날짜. 백그라운드가 먼저 읽어 둔 옛 목록으로 덮어쓰지 않는다.
+    private final Set<LocalDate> liveDates = new HashSet<>();
+    private final CompletableFuture<Void> initialIndex = new CompletableFuture<>();
+
+    public ScheduleContextBuilder(CalendarDataManager dataManager) {
+        this(dataManager, Clock.systemDefaultZone(),
+                Integer.getInteger("gcliwidget.context.daysBefore", 7),
+                Integer.getInteger("gcliwidget.context.daysAfter", 60),
+                Integer.getInteger("gcliwidget.context.tailDates", 10));
+    }
+
+    ScheduleContextBuilder(CalendarDataManager dataManager, Clock clock, int daysBefore, int daysAfter, int maxTailDates) {
+        this.dataManager = dataManager;
+        this.clock = clock;
+        this.daysBefore = daysBefore;
+        this.daysAfter = daysAfter;
+        this.maxTailDates = maxTailDates;
+        dataManager.addChangeListener(this);
+        Thread.ofVirtual().name("schedule-context-indexer").start(this::indexStoredMonths);
+    }
+
+    @Override
+    public void onCalendarChanged(List<CalendarChange> changes) {
+        dirtyDates.addAll(CalendarChange.datesOf(changes));
+    }
+
+    /**
+     * 사용자 명령에 맞춘 일정 컨텍스트. 기간 안의 날짜와 관련 날짜를 날짜순으로 적는다.
+     */
+    public String build(String prompt) {
+        return build(prompt, Integer.MAX_VALUE);
+    }
+
+    /**
+     * build(prompt) 와 같되, 대략 tokenBudget 토큰 안에 들도록 한다. 넘치면 명령에 나온 날짜와 오늘에 가까운 날짜부터
+     * 일정을 다 적고, 나머지 날짜는 일정 수만 한 줄로 요약하거나 빠진 날짜 수만 적는다.
+     */
+    public synchronized String build(String prompt, int tokenBudget) {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate from = today.minusDays(daysBefore);
+        LocalDate to = today.plusDays(daysAfter);
+
+        Map<LocalDate, List<Event>> selected = new HashMap<>(dataManager.getEventsInRange(from, to));
+        for (LocalDate date : selectTail(prompt, today, from, to)) {
+            List<Event> events = dataManager.getEventsForDate(date);
+            if (!events.isEmpty()) selected.put(date, events);
+        }
+        if (selected.isEmpty()) {
+            return "No scheduled events.";
+        }
+
+        String header = "(Showing " + from + " ~ " + to + " and related dates only.)\n";
+        int totalTokens = PromptBuilder.estimateTokens(header);
+        Map<LocalDate, RenderedDay> rendered = new HashMap<>();
+        for (LocalDate date : selected.keySet()) {
+            List<Event> events = selected.get(date);
+            RenderedDay day = renderedDays.get(date);
+            if (day == null || day.source() != events) {
+                String text = renderDay(date, events);
+                day = new RenderedDay(events, text, PromptBuilder.estimateTokens(text));
+            }
+            rendered.put(date, day);
+            totalTokens += day.tokens();
+        }
+        // 이번에 쓴 날짜만 남겨서 캐시가 기간 크기를 넘어 자라지 않게 한다.
+        renderedDays = rendered;
+
+        StringBuilder context = new StringBuilder(header);
+        if (totalTokens <= tokenBudget) {
+            new TreeSet<>(rendered.keySet()).forEach(date -> context.append(rendered.get(date).text()));
+            return context.toString();
+        }
+
+        // 예산을 넘으면 우선순위대로 날짜마다 전부 / 요약 / 생략을 정한 뒤 날짜순으로 적는다.
+        Set<LocalDate> mentioned = mentionedDates(prompt, today);
+        List<LocalDate> byPriority = new ArrayList<>(rendered.keySet());
+        byPriority.sort(Comparator.<LocalDate, Boolean>comparing(date -> !mentioned.contains(date))
+                .thenComparingLong(date -> Math.abs(ChronoUnit.DAYS.between(today, date)))
+                .thenComparing(Comparator.reverseOrder()));
+        String omittedNote = "(N more date(s) omitted to fit the prompt budget.)\n";
+        int remaining = tokenBudget - PromptBuilder.estimateTokens(header) - PromptBuilder.estimateTokens(omittedNote);
+        Map<LocalDate, String> chosen = new HashMap<>();
+        int omitted = 0;
+        for (LocalDate date : byPriority) {
+            RenderedDay day = rendered.get(date);
+            if (day.tokens() <= remaining) {
+                chosen.put(date, day.text());
+                remaining -= day.tokens();
+                continue;
+            }
+            String summary = summarizeDay(date, day.source());
+            int summaryTokens = PromptBuilder.estimateTokens(summary);
+            if (summaryTokens <= remaining) {
+                chosen.put(date, summary);
+                remaining -= summaryTokens;
+            } else {
+                omitted++;
+            }
+        }
+        new TreeSet<>(chosen.keySet()).forEach(date -> context.append(chosen.get(date)));
+        if (omitted > 0) {
+            context.append("(").append(omitted).append(" more date(s) omitted to fit the prompt budget.)\n");
+        }
+        return context.toString();
+    }
+
+    // 명령에 나온 날짜(yyyy-MM-dd 와 오늘/내일 같은 상대 날짜).
+    private static Set<LocalDate> mentionedDates(String prompt, LocalDate today) {
+        Set<LocalDate> dates = new HashSet<>();
+        if (prompt == null) return dates;
+        Matcher matcher = ISO_DATE.matcher(prompt);
+        while (matcher.find()) {
+            try {
+                dates.add(LocalDate.parse(matcher.group()));
+            } catch (DateTimeParseException e) {
+                // 달력에 없는 날짜는 무시
+            }
+        }
+        for (String word : tokenize(prompt)) {
+            RELATIVE_DAYS.forEach((relative, offset) -> {
+                if (word.startsWith(relative)) dates.add(today.plusDays(offset));
+            });
+        }
+        return dates;
+    }
+
+    // 저장된 달을 오늘에 가까운 달부터 하나씩 읽어 색인에 더한다. 다 끝나기 전의 build 는 그때까지 색인된 날짜에서만 고른다.
+    private void indexStoredMonths() {
+        long start = System.nanoTime();
+        YearMonth current = YearMonth.now(clock);
+        List<YearMonth> months = new ArrayList<>(dataManager.getMonths());
+        months.sort(Comparator.comparingLong(month -> Math.abs(ChronoUnit.MONTHS.between(current, month))));
+        try {
+            for (YearMonth month : months) {
+                try {
+                    Map<LocalDate, List<Event>> days = dataManager.peekMonth(month);
+                    synchronized (this) {
+                        days.forEach((date, events) -> {
+                            if (!liveDates.contains(date)) {
+                                unindexDate(date);
+                                indexDate(date, events);
+                            }
+                        });
+                    }
+                } catch (IOException e) {
+                    System.err.println("Could not index calendar month " + month + ": " + e.getMessage());
+                }
+            }
+            System.out.println("Schedule context: indexed " + months.size() + " month(s) in "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) + " ms");
+        } finally {
+            initialIndex.complete(null);
+        }
+    }
+
+    /**
+     * 저장된 달을 모두 색인하면 끝나는 future. 테스트용.
+     */
+    CompletableFuture<Void> initialIndex() {
+        return initialIndex;
+    }
+
+    // 기간 밖에서 명령에 나온 날짜(yyyy-MM-dd)를 먼저, 그다음 제목 단어가 많이 겹치고 오늘에 가까운 날짜를 고른다.
+    private List<LocalDate> selectTail(String prompt, LocalDate today, LocalDate from, LocalDate to) {
+        if (maxTailDates <= 0 || prompt == null || prompt.isBlank()) return List.of();
+        refreshTokenIndex();
+
+        // 명시한 날짜는 점수와 상관없이 먼저 넣는다. 여러 번 나와도 한 번만 센다.
+        Set<LocalDate> explicit = new HashSet<>();
+        Matcher matcher = ISO_DATE.matcher(prompt);
+        while (matcher.find()) {
+            try {
+                explicit.add(LocalDate.parse(matcher.group()));
+            } catch (DateTimeParseException e) {
+                // 달력에 없는 날짜는 무시
+            }
+        }
+        Map<LocalDate, Integer> scores = new HashMap<>();
+        explicit.forEach(date -> scores.put(date, 0));
+        for (String word : tokenize(prompt)) {
+            // 한국어 조사가 붙어도 맞도록 단어의 앞부분도 찾아본다. ("운동을" -> "운동")
+            Set<String> matched = new HashSet<>();
+            for (int end = MIN_TOKEN_LENGTH; end <= word.length(); end++) {
+                String prefix = word.substring(0, end);
+                if (tokenIndex.containsKey(prefix)) matched.add(prefix);
+            }
+            for (String token : matched) {
+                tokenIndex.get(token).forEach(date -> scores.merge(date, 1, Integer::sum));
+            }
+        }
+
+        List<LocalDate> candidates = new ArrayList<>();
+        scores.keySet().forEach(date -> {
+            if (date.isBefore(from) || date.isAfter(to)) candidates.add(date);
+        });
+        candidates.sort(Comparator.<LocalDate, Boolean>comparing(date -> !explicit.contains(date))
+                .thenComparing(Comparator.<LocalDate>comparingInt(scores::get).reversed())
+                .thenComparingLong(date -> Math.abs(ChronoUnit.DAYS.between(today, date))));
+        return candidates.size() > maxTailDates ? candidates.subList(0, maxTailDates) : candidates;
+    }
+
+    private void refreshTokenIndex() {
+        for (LocalDate date : new ArrayList<>(dirtyDates)) {
+            dirtyDates.remove(date);
+            liveDates.add(date);
+            unindexDate(date);
+            indexDate(date, dataManager.getEventsForDate(date));
+        }
+    }
+
+    private void unindexDate(LocalDate date) {
+        Set<String> oldTokens = dateTokens.remove(date);
+        if (oldTokens == null) return;
+        for (String token : oldTokens) {
+            Set<LocalDate> dates = tokenIndex.get(token);
+            dates.remove(date);
+            if (dates.isEmpty()) tokenIndex.remove(token);
+        }
+    }
+
+    private void indexDate(LocalDate date, List<Event> events) {
+        Set<String> tokens = new HashSet<>();
+        events.forEach(event -> tokens.addAll(tokenize(event.getTitle())));
+        if (tokens.isEmpty()) return;
+        dateTokens.put(date, tokens);
+        tokens.forEach(token -> tokenIndex.computeIfAbsent(token, k -> new HashSet<>()).add(date));
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (word.length() >= MIN_TOKEN_LENGTH) tokens.add(word);
+        }
+        return tokens;
+    }
+
+    private static String summarizeDay(LocalDate date, List<Event> events) {
+        long completed = events.stream().filter(Event::isCompleted).count();
+        return date.format(DateTimeFormatter.ISO_LOCAL_DATE) + ": " + events.size() + " event(s), " + completed + " done (titles omitted)\n";
+    }
+
+    private static String renderDay(LocalDate date, List<Event> events) {
+        StringBuilder text = new StringBuilder(32 + events.size() * 32);
+        text.append(date.format(DateTimeFormatter.ISO_LOCAL_DATE)).append('\n');
+        for (Event event : events) {
+            text.append(event.isCompleted() ? "- [x] " : "- [ ] ").append(event.getTitle());
+            if (event.getTime() != null && !event.getTime().isBlank()) {
+                text.append(" (").append(event.getTime()).append(')');
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+}
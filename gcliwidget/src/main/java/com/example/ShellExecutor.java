@@ -0,0 +1,204 @@
+package com.example;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 셸 명령 실행기. 명령마다 가상 스레드 하나가 프로세스를 지켜보고, stdout 과 stderr 는 각각 다른 가상 스레드가 동시에 읽는다.
+ * 한쪽 파이프가 차서 프로세스가 멈추는 일이 없고, 명령을 여러 개 동시에 돌려도 플랫폼 스레드가 쌓이지 않는다.
+ * 실행 중인 명령은 번호로 작업 표에 남아 있어 kill 로 멈출 수 있고, 제한 시간을 넘기면 자식 프로세스까지 함께 끝낸다.
+ */
+public class ShellExecutor {
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(Long.getLong("gcliwidget.shell.timeoutSeconds", 300));
+    // 끝내라고 한 뒤 이만큼 기다려도 살아 있으면 강제로 끝낸다.
+    private static final Duration KILL_GRACE = Duration.ofSeconds(2);
+    // 프로세스가 끝난 뒤 남은 출력을 읽는 데 기다리는 시간. 파이프를 물려받은 손자 프로세스가 있으면 EOF 가 오지 않는다.
+    private static final Duration PUMP_GRACE = Duration.ofSeconds(2);
+
+    /**
+     * 작업 표에 보이는 실행 중인 명령 하나.
+     */
+    public record JobInfo(int id, String command, Duration elapsed) {}
+
+    private enum EndReason { EXITED, KILLED, TIMED_OUT }
+
+    private static final class Job {
+        final int id;
+        final String command;
+        final Process process;
+        final Instant startedAt = Instant.now();
+        volatile EndReason endReason = EndReason.EXITED;
+
+        Job(int id, String command, Process process) {
+            this.id = id;
+            this.command = command;
+            this.process = process;
+        }
+    }
+
+    private final Consumer<String> output;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<Integer, Job> jobs = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    /**
+     * @param output 출력 한 줄씩 받는다. 여러 가상 스레드에서 동시에 불리므로 스레드에 안전해야 한다.
+     */
+    public ShellExecutor(Consumer<String> output) {
+        this.output = output;
+    }
+
+    /**
+     * 명령을 시작하고 작업 번호를 돌려준다. 출력과 종료 코드는 output 으로 온다.
+     */
+    public int submit(String command, Duration timeout) throws IOException {
+        Process process = processBuilder(command).start();
+        Job job = new Job(nextId.getAndIncrement(), command, process);
+        jobs.put(job.id, job);
+        output.accept("[" + job.id + "] started: " + command);
+        executor.execute(() -> supervise(job, timeout));
+        return job.id;
+    }
+
+    public int submit(String command) throws IOException {
+        return submit(command, DEFAULT_TIMEOUT);
+    }
+
+    /**
+     * 작업을 멈춘다. 그런 작업이 없거나 이미 끝났으면 false.
+     */
+    public boolean kill(int id) {
+        Job job = jobs.get(id);
+        if (job == null || !job.process.isAlive()) return false;
+        job.endReason = EndReason.KILLED;
+        destroyTree(job.process);
+        return true;
+    }
+
+    /**
+     * 가장 최근에 시작한 작업을 멈춘다. Ctrl+C 에 쓴다.
+     */
+    public Optional<Integer> killLatest() {
+        return jobs.keySet().stream().max(Integer::compare).filter(this::kill);
+    }
+
+    public List<JobInfo> jobs() {
+        Instant now = Instant.now();
+        return jobs.values().stream()
+                .sorted(Comparator.comparingInt(job -> job.id))
+                .map(job -> new JobInfo(job.id, job.command, Duration.between(job.startedAt, now)))
+                .toList();
+    }
+
+    /**
+     * 실행 중인 작업을 모두 멈춘다. 앱을 닫을 때 부른다.
+     */
+    public void close() {
+        jobs.keySet().forEach(this::kill);
+        executor.shutdown();
+    }
+
+    private void supervise(Job job, Duration timeout) {
+        Process process = job.process;
+        Future<?> stdout = executor.submit(() -> pump(job, process.getInputStream(), ""));
+        Future<?> stderr = executor.submit(() -> pump(job, process.getErrorStream(), "ERROR: "));
+        try {
+            if (!process.waitFor(timeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                job.endReason = EndReason.TIMED_OUT;
+                destroyTree(process);
+            }
+            int exitCode = process.waitFor();
+            awaitPump(stdout);
+            awaitPump(stderr);
+            String elapsed = formatElapsed(Duration.between(job.startedAt, Instant.now()));
+            switch (job.endReason) {
+                case KILLED -> output.accept("[" + job.id + "] Killed after " + elapsed + ".");
+                case TIMED_OUT -> output.accept("[" + job.id + "] Timed out after " + formatElapsed(timeout) + ".");
+                case EXITED -> output.accept("[" + job.id + "] Process finished with exit code: " + exitCode + " (" + elapsed + ")");
+            }
+        } catch (InterruptedException e) {
+            destroyTree(process);
+            Thread.currentThread().interrupt();
+        } finally {
+            jobs.remove(job.id);
+        }
+    }
+
+    private void pump(Job job, InputStream stream, String prefix) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.accept("[" + job.id + "] " + prefix + line);
+            }
+        } catch (IOException e) {
+            // 프로세스를 끝내면서 파이프가 닫힌 경우
+        }
+    }
+
+    private static void awaitPump(Future<?> pump) throws InterruptedException {
+        try {
+            pump.get(PUMP_GRACE.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            pump.cancel(true);
+        } catch (ExecutionException e) {
+            System.err.println("Shell output pump failed: " + e.getCause());
+        }
+    }
+
+    // 셸이 띄운 자식까지 끝내야 파이프가 닫히고 작업이 정리된다.
+    private void destroyTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroy);
+        process.destroy();
+        try {
+            executor.execute(() -> {
+                try {
+                    if (!process.waitFor(KILL_GRACE.toMillis(), TimeUnit.MILLISECONDS)) {
+                        destroyTreeForcibly(process);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // 이미 닫는 중이면 기다리지 않고 바로 끝낸다.
+            destroyTreeForcibly(process);
+        }
+    }
+
+    private static void destroyTreeForcibly(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    private static ProcessBuilder processBuilder(String command) {
+        if (System.getProperty("os.name").toLowerCase().contains("win")) {
+            return new ProcessBuilder("cmd.exe", "/c", "chcp 65001 > nul && " + command);
+        }
+        return new ProcessBuilder("bash", "-c", command);
+    }
+
+    private static String formatElapsed(Duration duration) {
+        long millis = duration.toMillis();
+        return millis < 1000 ? millis + "ms" : String.format("%.1fs", millis / 1000.0);
+    }
+}
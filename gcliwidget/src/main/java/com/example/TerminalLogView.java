@@ -0,0 +1,130 @@
+package com.example;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import javafx.animation.AnimationTimer;
+import javafx.application.Platform;
+import javafx.collections.ObservableList;
+import javafx.scene.control.ListView;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.KeyCodeCombination;
+import javafx.scene.input.KeyCombination;
+
+/**
+ * 터미널 출력 창. 줄마다 runLater 를 보내는 대신 TerminalOutputBuffer 에 모아 두었다가 프레임마다 한 번에 붙인다.
+ * ListView 라서 보이는 줄만 노드를 만들고, 보관하는 줄 수는 SCROLLBACK 으로 자른다.
+ */
+public class TerminalLogView extends ListView<String> {
+
+    // 보관할 최대 줄 수. 넘으면 오래된 줄부터 버린다.
+    private static final int SCROLLBACK = Integer.getInteger("gcliwidget.terminal.scrollback", 100_000);
+    private static final double LINE_HEIGHT = 18;
+    private static final KeyCombination COPY = new KeyCodeCombination(KeyCode.C, KeyCombination.SHORTCUT_DOWN);
+
+    private final AnimationTimer flushTimer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            flush();
+        }
+    };
+    private final TerminalOutputBuffer buffer = new TerminalOutputBuffer(SCROLLBACK, () -> Platform.runLater(flushTimer::start));
+    private final List<String> batch = new ArrayList<>();
+    // 위로 스크롤하면 새 줄이 와도 끝으로 끌려가지 않는다. 아래로 스크롤하거나 End 를 누르면 다시 따라간다.
+    private boolean followTail = true;
+
+    public TerminalLogView() {
+        setFixedCellSize(LINE_HEIGHT);
+        setFocusTraversable(false);
+        getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        setStyle("-fx-font-family: 'monospaced'; -fx-control-inner-background: rgba(0,0,0,0.5); -fx-background-color: transparent;");
+
+        setOnScroll(event -> {
+            if (event.getDeltaY() > 0) {
+                followTail = false;
+            } else if (event.getDeltaY() < 0) {
+                followTail = true;
+            }
+        });
+        setOnKeyPressed(event -> {
+            if (COPY.match(event)) {
+                copySelection();
+                event.consume();
+            } else if (event.getCode() == KeyCode.END) {
+                followTail = true;
+                scrollToEnd();
+            }
+        });
+    }
+
+    /**
+     * 아무 스레드에서나 부른다. 줄바꿈으로 나누어 한 줄씩 쌓는다.
+     */
+    public void append(String text) {
+        int start = 0;
+        int length = text.length();
+        while (start < length) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) end = length;
+            int lineEnd = end > start && text.charAt(end - 1) == '\r' ? end - 1 : end;
+            buffer.add(text.substring(start, lineEnd));
+            start = end + 1;
+        }
+    }
+
+    public void appendLine(String line) {
+        buffer.add(line);
+    }
+
+    /**
+     * 화면과 아직 붙이지 않은 줄을 모두 지운다. FX 스레드에서 부른다.
+     */
+    public void clear() {
+        buffer.clear();
+        getItems().clear();
+        followTail = true;
+    }
+
+    // 한 프레임에 쌓인 줄을 한 번의 addAll 로 붙이고, 넘친 앞부분은 한 번의 remove 로 잘라낸다.
+    private void flush() {
+        batch.clear();
+        long dropped = buffer.takeDropped();
+        buffer.drainTo(batch, SCROLLBACK);
+        if (batch.isEmpty() && dropped == 0) {
+            if (!buffer.finishDrain()) {
+                flushTimer.stop();
+            }
+            return;
+        }
+        ObservableList<String> items = getItems();
+        if (dropped > 0) {
+            items.add("... (" + dropped + " lines skipped)");
+        }
+        items.addAll(batch);
+        int excess = items.size() - SCROLLBACK;
+        if (excess > 0) {
+            items.remove(0, excess);
+        }
+        batch.clear();
+        if (followTail) {
+            scrollToEnd();
+        }
+    }
+
+    private void scrollToEnd() {
+        if (!getItems().isEmpty()) {
+            scrollTo(getItems().size() - 1);
+        }
+    }
+
+    private void copySelection() {
+        List<String> selected = getSelectionModel().getSelectedItems();
+        if (selected.isEmpty()) return;
+        ClipboardContent content = new ClipboardContent();
+        content.putString(String.join("\n", selected));
+        Clipboard.getSystemClipboard().setContent(content);
+    }
+}
@@ -0,0 +1,87 @@
+package com.example;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 여러 스레드가 터미널에 쓰는 줄을 모아 두는 잠금 없는 버퍼. 화면 쪽은 한 프레임에 한 번 꺼내 간다.
+ * capacity 를 넘으면 가장 오래된 줄부터 버리고 버린 수만 센다. 어차피 화면이 보여 줄 수 있는 줄 수를 넘기면 의미가 없다.
+ * 비어 있다가 첫 줄이 들어올 때만 onPending 을 불러, 쏟아지는 출력도 깨우기는 한 번으로 끝난다.
+ */
+public class TerminalOutputBuffer {
+
+    private final int capacity;
+    private final Runnable onPending;
+    private final Queue<String> lines = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    public TerminalOutputBuffer(int capacity, Runnable onPending) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        this.capacity = capacity;
+        this.onPending = onPending;
+    }
+
+    /**
+     * 아무 스레드에서나 부른다.
+     */
+    public void add(String line) {
+        lines.offer(line);
+        if (size.incrementAndGet() > capacity && lines.poll() != null) {
+            size.decrementAndGet();
+            dropped.incrementAndGet();
+        }
+        if (drainScheduled.compareAndSet(false, true)) {
+            onPending.run();
+        }
+    }
+
+    /**
+     * 쌓인 줄을 최대 max 개까지 순서대로 target 에 옮기고 옮긴 수를 돌려준다. 꺼내는 쪽은 한 스레드여야 한다.
+     */
+    public int drainTo(List<String> target, int max) {
+        int count = 0;
+        String line;
+        while (count < max && (line = lines.poll()) != null) {
+            size.decrementAndGet();
+            target.add(line);
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * 지난번 이후 넘쳐서 버린 줄 수.
+     */
+    public long takeDropped() {
+        return dropped.getAndSet(0);
+    }
+
+    /**
+     * 꺼낼 것이 없어 쉬려 할 때 부른다. 그 사이 새 줄이 들어왔으면 true 를 돌려주고 계속 꺼내야 한다.
+     * false 이면 다음 add 가 onPending 으로 다시 깨운다.
+     */
+    public boolean finishDrain() {
+        drainScheduled.set(false);
+        return !lines.isEmpty() && drainScheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * 아직 꺼내지 않은 줄을 버린다. 화면을 지울 때 쓴다.
+     */
+    public void clear() {
+        while (lines.poll() != null) {
+            size.decrementAndGet();
+        }
+        dropped.set(0);
+    }
+
+    int size() {
+        return size.get();
+    }
+}
@@ -0,0 +1,172 @@
+package com.example;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.TextStyle;
+import java.time.temporal.ChronoUnit;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.geometry.Pos;
+import javafx.scene.control.Button;
+import javafx.scene.control.Label;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.GridPane;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.VBox;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+
+/**
+ * 한 해의 날짜별 일정 수를 색으로 보여 주는 보기. 칸(주 x 요일)은 한 번 만들어 두고 해를 넘길 때 색만 바꾼다.
+ * 일정 수는 백그라운드에서 세고, 변경 알림이 오면 그 해에 속한 바뀐 날짜만 다시 센다.
+ */
+public class YearHeatmapView extends VBox {
+
+    private static final int WEEKS = 54;
+    private static final double SQUARE_SIZE = 12;
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final CalendarDataManager dataManager;
+    private final Label yearTitle = new Label();
+    private final Label hoverLabel = new Label(" ");
+    private final Region[] squares = new Region[WEEKS * 7];
+    private final Map<LocalDate, Integer> counts = new HashMap<>();
+    private final ExecutorService loader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "heatmap-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Consumer<LocalDate> onDateSelected = date -> {};
+    private int year;
+    // 첫 칸(0주 일요일)의 날짜.
+    private LocalDate gridStart;
+    private int generation;
+
+    public YearHeatmapView() {
+        this(CalendarDataManager.getInstance());
+    }
+
+    YearHeatmapView(CalendarDataManager dataManager) {
+        this.dataManager = dataManager;
+        setPadding(new Insets(10));
+        setSpacing(10);
+        setStyle("-fx-background-color: transparent;");
+
+        Button previousYear = new Button("<");
+        previousYear.setOnAction(e -> showYear(year - 1));
+        Button nextYear = new Button(">");
+        nextYear.setOnAction(e -> showYear(year + 1));
+        yearTitle.setFont(Font.font("Segoe UI", FontWeight.BOLD, 22));
+        yearTitle.setTextFill(Color.WHITE);
+        HBox header = new HBox(10, previousYear, yearTitle, nextYear);
+        header.setAlignment(Pos.CENTER);
+
+        GridPane grid = new GridPane();
+        grid.setHgap(2);
+        grid.setVgap(2);
+        grid.setAlignment(Pos.CENTER);
+        for (int week = 0; week < WEEKS; week++) {
+            for (int day = 0; day < 7; day++) {
+                int slot = week * 7 + day;
+                Region square = new Region();
+                square.setPrefSize(SQUARE_SIZE, SQUARE_SIZE);
+                square.setMinSize(SQUARE_SIZE, SQUARE_SIZE);
+                square.setOnMouseEntered(e -> showHover(slot));
+                square.setOnMouseClicked(e -> {
+                    LocalDate date = dateOf(slot);
+                    if (e.getButton() == MouseButton.PRIMARY && date.getYear() == year) onDateSelected.accept(date);
+                });
+                squares[slot] = square;
+                grid.add(square, week, day);
+            }
+        }
+        hoverLabel.setTextFill(Color.WHITE);
+
+        getChildren().addAll(header, grid, hoverLabel);
+        dataManager.addChangeListener(this::onCalendarChanged, Platform::runLater);
+        showYear(LocalDate.now().getYear());
+    }
+
+    /**
+     * 칸을 누르면 그 날짜로 불린다.
+     */
+    public void setOnDateSelected(Consumer<LocalDate> onDateSelected) {
+        this.onDateSelected = onDateSelected;
+    }
+
+    private void showYear(int year) {
+        this.year = year;
+        int requested = ++generation;
+        LocalDate first = LocalDate.of(year, 1, 1);
+        gridStart = first.minusDays(first.getDayOfWeek().getValue() % 7);
+        yearTitle.setText(String.valueOf(year));
+        counts.clear();
+        for (int slot = 0; slot < squares.length; slot++) {
+            paint(slot);
+        }
+        loader.execute(() -> {
+            Map<LocalDate, Integer> loaded = new HashMap<>();
+            dataManager.getEventsInRange(first, first.withDayOfYear(first.lengthOfYear()))
+                    .forEach((date, events) -> loaded.put(date, events.size()));
+            Platform.runLater(() -> {
+                if (requested != generation) return;
+                // 읽는 사이 변경 알림으로 먼저 센 날짜는 그 값이 더 새롭다.
+                loaded.forEach(counts::putIfAbsent);
+                for (int slot = 0; slot < squares.length; slot++) {
+                    paint(slot);
+                }
+            });
+        });
+    }
+
+    private void onCalendarChanged(List<CalendarChange> changes) {
+        for (LocalDate date : CalendarChange.datesOf(changes)) {
+            if (date.getYear() != year) continue;
+            counts.put(date, dataManager.getEventsForDate(date).size());
+            paint((int) ChronoUnit.DAYS.between(gridStart, date));
+        }
+    }
+
+    private LocalDate dateOf(int slot) {
+        return gridStart.plusDays(slot);
+    }
+
+    private void paint(int slot) {
+        LocalDate date = dateOf(slot);
+        Region square = squares[slot];
+        if (date.getYear() != year) {
+            square.setStyle("-fx-background-color: transparent;");
+            return;
+        }
+        square.setStyle("-fx-background-radius: 2; -fx-background-color: " + colorFor(counts.getOrDefault(date, 0)) + ";"
+                + (date.equals(LocalDate.now()) ? " -fx-border-color: #add8e6; -fx-border-width: 1;" : ""));
+    }
+
+    private static String colorFor(int count) {
+        if (count == 0) return "rgba(255, 255, 255, 0.08)";
+        if (count == 1) return "rgba(70, 130, 180, 0.35)";
+        if (count <= 3) return "rgba(70, 130, 180, 0.55)";
+        if (count <= 6) return "rgba(70, 130, 180, 0.75)";
+        return "rgba(70, 130, 180, 1.0)";
+    }
+
+    private void showHover(int slot) {
+        LocalDate date = dateOf(slot);
+        if (date.getYear() != year) {
+            hoverLabel.setText(" ");
+            return;
+        }
+        String day = date.getDayOfWeek().getDisplayName(TextStyle.SHORT, Locale.getDefault());
+        hoverLabel.setText(date.format(DATE_FORMAT) + " (" + day + ") — " + counts.getOrDefault(date, 0) + " event(s)");
+    }
+}
@@ -0,0 +1,485 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class CalendarDataManagerTest {
+
+    private static final String[] TITLES = {"팀 미팅", "운동", "Team Sync", "team sync", "보고서 제출", "Dinner"};
+    private static final String[] TIMES = {"", "09:00", "15:30", "18:00", "Now"};
+
+    @TempDir
+    Path tempDir;
+
+    private final List<CalendarDataManager> managers = new ArrayList<>();
+
+    @AfterEach
+    public void closeManagers() {
+        managers.forEach(CalendarDataManager::close);
+    }
+
+    private CalendarDataManager open(Path notesFile) {
+        return open(notesFile, MonthSegmentStore.SnapshotFormat.fromSystemProperties());
+    }
+
+    private CalendarDataManager open(Path notesFile, MonthSegmentStore.SnapshotFormat format) {
+        CalendarDataManager manager = new CalendarDataManager(notesFile, format);
+        managers.add(manager);
+        return manager;
+    }
+
+    @Test
+    public void indexesFollowEveryMutation() {
+        CalendarDataManager manager = open(tempDir.resolve("notes.json"));
+        Random random = new Random(7);
+        LocalDate base = LocalDate.of(2024, 1, 1);
+        List<String> knownIds = new ArrayList<>();
+
+        for (int step = 0; step < 3000; step++) {
+            LocalDate date = base.plusDays(random.nextInt(120));
+            String title = TITLES[random.nextInt(TITLES.length)];
+            switch (random.nextInt(9)) {
+                case 0, 1, 2 -> {
+                    Event event = new Event(title, TIMES[random.nextInt(TIMES.length)]);
+                    manager.addEventForDate(date, event);
+                    knownIds.add(event.getId());
+                }
+                case 3 -> manager.toggleEventCompletion(date, title.toUpperCase());
+                case 4 -> manager.deleteEventByTitle(date, title);
+                case 5 -> manager.copyEvents(date, base.plusDays(random.nextInt(120)));
+                case 6 -> {
+                    if (!knownIds.isEmpty()) {
+                        manager.moveEvent(knownIds.get(random.nextInt(knownIds.size())), date);
+                    }
+                }
+                case 7 -> {
+                    List<Event> events = manager.getEventsForDate(date);
+                    if (!events.isEmpty()) {
+                        // CalendarView 처럼 사본을 고쳐서 updateEvent 에 넘긴다.
+                        Event event = new Event(events.get(random.nextInt(events.size())));
+                        event.setTitle(TITLES[random.nextInt(TITLES.length)]);
+                        event.setTime(TIMES[random.nextInt(TIMES.length)]);
+                        manager.updateEvent(date, event);
+                    }
+                }
+                default -> {
+                    if (random.nextInt(10) == 0) {
+                        manager.deleteAllEventsForDate(date);
+                    } else {
+                        List<Event> events = manager.getEventsForDate(date);
+                        if (!events.isEmpty()) {
+                            manager.deleteEvent(date, events.get(0).getId());
+                        }
+                    }
+                }
+            }
+            manager.verifyIndexes();
+        }
+    }
+
+    @Test
+    public void titleLookupIsCaseInsensitiveAndTargetsFirstMatch() {
+        CalendarDataManager manager = open(tempDir.resolve("notes.json"));
+        LocalDate date = LocalDate.of(2024, 5, 22);
+        manager.addEventForDate(date, new Event("Team Sync", "10:00"));
+        manager.addEventForDate(date, new Event("team sync", "11:00"));
+
+        assertTrue(manager.toggleEventCompletion(date, "TEAM SYNC"));
+        List<Event> events = manager.getEventsForDate(date);
+        assertTrue(events.get(0).isCompleted());
+        assertFalse(events.get(1).isCompleted());
+
+        assertTrue(manager.deleteEventByTitle(date, "team SYNC"));
+        assertTrue(manager.getEventsForDate(date).isEmpty());
+        assertFalse(manager.toggleEventCompletion(date, "team sync"));
+        manager.verifyIndexes();
+    }
+
+    @Test
+    public void dayListsStaySortedByParsedTime() {
+        CalendarDataManager manager = open(tempDir.resolve("notes.json"));
+        LocalDate date = LocalDate.of(2024, 5, 22);
+        manager.addEventForDate(date, new Event("저녁", "18:00"));
+        manager.addEventForDate(date, new Event("잘못된 시간", "6pm"));
+        manager.addEventForDate(date, new Event("하루 종일", ""));
+        manager.addEventForDate(date, new Event("아침", "08:30"));
+        Event lunch = new Event("점심", "12:00");
+        manager.addEventForDate(date, lunch);
+
+        lunch.setTime("07:00");
+        manager.updateEvent(date, lunch);
+
+        List<String> titles = manager.getEventsForDate(date).stream().map(Event::getTitle).toList();
+        assertEquals(List.of("하루 종일", "점심", "아침", "저녁", "잘못된 시간"), titles);
+        assertEquals(Event.UNTIMED, manager.getEventsForDate(date).get(0).getMinuteOfDay());
+        assertEquals(7 * 60, lunch.getMinuteOfDay());
+    }
+
+    @Test
+    public void reloadedEventsKeepTheirTimeOrder() {
+        Path notesFile = tempDir.resolve("notes.json");
+        LocalDate date = LocalDate.of(2024, 5, 22);
+        CalendarDataManager first = open(notesFile, MonthSegmentStore.SnapshotFormat.JSON);
+        first.addEventForDate(date, new Event("아침 회의", "09:00"));
+        first.addEventForDate(date, new Event("저녁", "18:30"));
+        first.addEventForDate(date, new Event("자정 작업", "00:00"));
+        first.close();
+
+        // Gson 이 만든 일정도 시간을 제대로 읽어야 새 일정이 그 사이에 들어간다.
+        CalendarDataManager reopened = open(notesFile, MonthSegmentStore.SnapshotFormat.JSON);
+        List<Event> loaded = reopened.getEventsForDate(date);
+        assertEquals(List.of(0, 9 * 60, 18 * 60 + 30), loaded.stream().map(Event::getMinuteOfDay).toList());
+        assertEquals(18 * 60 + 30, new Event(loaded.get(2)).getMinuteOfDay());
+        reopened.addEventForDate(date, new Event("조깅", "07:00"));
+        assertEquals(List.of("자정 작업", "조깅", "아침 회의", "저녁"),
+                reopened.getEventsForDate(date).stream().map(Event::getTitle).toList());
+        reopened.verifyIndexes();
+    }
+
+    @Test
+    public void indexesSurviveEvictionAndReload() {
+        Path notesFile = tempDir.resolve("notes.json");
+        CalendarDataManager manager = open(notesFile);
+        manager.setMaxResidentMonths(3);
+        LocalDate base = LocalDate.of(2020, 1, 15);
+        List<Event> added = new ArrayList<>();
+        for (int month = 0; month < 24; month++) {
+            Event event = new Event("월간 점검 " + month, "09:00");
+            manager.addEventForDate(base.plusMonths(month), event);
+            added.add(event);
+        }
+        manager.flush();
+
+        // 다시 열면 로그가 세그먼트에 접힌 상태에서 시작하므로 달을 내릴 수 있다.
+        CalendarDataManager reopened = open(notesFile);
+        reopened.setMaxResidentMonths(3);
+        for (int month = 0; month < 24; month++) {
+            assertEquals(1, reopened.getEventsForDate(base.plusMonths(month)).size());
+            reopened.verifyIndexes();
+        }
+        assertTrue(reopened.getResidentMonthCount() <= 3);
+
+        // 내려간 달의 일정도 id 로 찾아 옮길 수 있어야 한다.
+        Event first = added.get(0);
+        LocalDate target = base.plusMonths(23).plusDays(1);
+        reopened.moveEvent(first.getId(), target);
+        reopened.verifyIndexes();
+        assertTrue(reopened.getEventsForDate(base).isEmpty());
+        assertEquals(first.getId(), reopened.getEventsForDate(target).get(0).getId());
+
+        Map<LocalDate, List<Event>> all = reopened.getAllEvents();
+        assertEquals(24, all.values().stream().mapToInt(List::size).sum());
+        reopened.verifyIndexes();
+    }
+
+    @Test
+    public void concurrentReadersSeeConsistentSnapshots() throws Exception {
+        CalendarDataManager manager = open(tempDir.resolve("notes.json"));
+        LocalDate base = LocalDate.of(2024, 2, 20);
+        int movingCount = 40;
+        List<String> movingIds = new ArrayList<>();
+        for (int i = 0; i < movingCount; i++) {
+            Event event = new Event("이동", TIMES[i % TIMES.length]);
+            manager.addEventForDate(base.plusDays(i % 20), event);
+            movingIds.add(event.getId());
+        }
+
+        Queue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        AtomicBoolean writersDone = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Runnable> writers = new ArrayList<>();
+        // 이동 일정은 날짜만 바뀌므로 어느 스냅샷에서 세어도 개수가 같아야 한다.
+        for (int w = 0; w < 2; w++) {
+            Random random = new Random(100 + w);
+            writers.add(() -> {
+                for (int i = 0; i < 1500; i++) {
+                    manager.moveEvent(movingIds.get(random.nextInt(movingCount)), base.plusDays(random.nextInt(20)));
+                }
+            });
+        }
+        for (int w = 0; w < 2; w++) {
+            Random random = new Random(200 + w);
+            writers.add(() -> {
+                for (int i = 0; i < 1500; i++) {
+                    LocalDate date = base.plusDays(random.nextInt(20));
+                    List<Event> others = manager.getEventsForDate(date).stream().filter(e -> e.getTitle().equals("기타")).toList();
+                    switch (random.nextInt(4)) {
+                        case 0 -> manager.addEventForDate(date, new Event("기타", TIMES[random.nextInt(TIMES.length)]));
+                        case 1 -> manager.toggleEventCompletion(date, "기타");
+                        case 2 -> {
+                            if (!others.isEmpty()) {
+                                Event edited = new Event(others.get(0));
+                                edited.setTime(TIMES[random.nextInt(TIMES.length)]);
+                                manager.updateEvent(date, edited);
+                            }
+                        }
+                        default -> {
+                            if (!others.isEmpty()) manager.deleteEvent(date, others.get(0).getId());
+                        }
+                    }
+                }
+            });
+        }
+
+        Map<LocalDate, List<Event>> firstSnapshot = manager.getAllEvents();
+        int firstSnapshotSize = firstSnapshot.values().stream().mapToInt(List::size).sum();
+        List<Runnable> readers = new ArrayList<>();
+        for (int r = 0; r < 4; r++) {
+            readers.add(() -> {
+                long lastVersion = 0;
+                while (!writersDone.get()) {
+                    long version = manager.getVersion();
+                    assertTrue(version >= lastVersion);
+                    lastVersion = version;
+                    Map<LocalDate, List<Event>> snapshot = manager.getAllEvents();
+                    long moving = snapshot.values().stream().flatMap(List::stream).filter(e -> e.getTitle().equals("이동")).count();
+                    assertEquals(movingCount, moving);
+                    snapshot.values().forEach(CalendarDataManagerTest::assertSorted);
+                    manager.getEventsInRange(base, base.plusDays(19)).values().forEach(CalendarDataManagerTest::assertSorted);
+                    assertSorted(manager.getEventsForDate(base.plusDays((int) (version % 20))));
+                }
+            });
+        }
+
+        List<Future<?>> writerFutures = new ArrayList<>();
+        for (Runnable task : readers) {
+            pool.submit(() -> run(task, start, failures));
+        }
+        for (Runnable task : writers) {
+            writerFutures.add(pool.submit(() -> run(task, start, failures)));
+        }
+        start.countDown();
+        for (Future<?> future : writerFutures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        writersDone.set(true);
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(60, TimeUnit.SECONDS));
+
+        if (!failures.isEmpty()) {
+            AssertionError error = new AssertionError(failures.size() + " concurrent failure(s)");
+            failures.forEach(error::addSuppressed);
+            throw error;
+        }
+        // 먼저 받아 둔 스냅샷은 그 뒤의 변경에 영향을 받지 않고, 고칠 수도 없다.
+        assertEquals(firstSnapshotSize, firstSnapshot.values().stream().mapToInt(List::size).sum());
+        assertThrows(UnsupportedOperationException.class, () -> firstSnapshot.put(base, List.of()));
+        assertThrows(UnsupportedOperationException.class, () -> manager.getEventsForDate(base).clear());
+        manager.verifyIndexes();
+    }
+
+    @Test
+    public void publishesOneChangePerTouchedEvent() {
+        CalendarDataManager manager = open(tempDir.resolve("notes.json"));
+        List<List<CalendarChange>> received = new ArrayList<>();
+        manager.addChangeListener(received::add);
+        LocalDate date = LocalDate.of(2024, 5, 22);
+        LocalDate other = date.plusDays(1);
+
+        Event meeting = new Event("회의", "10:00");
+        manager.addEventForDate(date, meeting);
+        manager.addEventForDate(date, new Event("점심", "12:00"));
+        manager.toggleEventCompletion(date, "회의");
+        manager.copyEvents(date, other);
+        manager.deleteAllEventsForDate(date);
+        manager.deleteAllEventsForDate(date);
+
+        assertEquals(5, received.size());
+        assertEquals(List.of(new CalendarChange(CalendarChange.Kind.ADDED, date, meeting.getId())), received.get(0));
+        assertEquals(List.of(new CalendarChange(CalendarChange.Kind.UPDATED, date, meeting.getId())), received.get(2));
+        List<CalendarChange> copied = received.get(3);
+        assertEquals(2, copied.size());
+        assertTrue(copied.stream().allMatch(change -> change.kind() == CalendarChange.Kind.ADDED && change.date().equals(other)));
+        List<CalendarChange> removed = received.get(4);
+        assertEquals(2, removed.size());
+        assertTrue(removed.stream().allMatch(change -> change.kind() == CalendarChange.Kind.REMOVED && change.date().equals(date)));
+    }
+
+    @Test
+    public void batchMoveIsOneWriteAndOneNotification() {
+        Path notesFile = tempDir.resolve("notes.json");
+        CalendarDataManager manager = open(notesFile);
+        LocalDate monday = LocalDate.of(2024, 5, 20);
+        LocalDate tuesday = monday.plusDays(1);
+        LocalDate friday = monday.plusDays(4);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Event event = new Event("작업 " + i, String.format("%02d:00", i));
+            manager.addEventForDate(i % 2 == 0 ? monday : tuesday, event);
+            ids.add(event.getId());
+        }
+        Event stays = new Event("남는 일정", "");
+        manager.addEventForDate(monday, stays);
+
+        List<List<CalendarChange>> received = new ArrayList<>();
+        manager.addChangeListener(received::add);
+        long before = manager.getVersion();
+        List<String> request = new ArrayList<>(ids);
+        request.add("없는-id");
+        assertEquals(20, manager.moveEvents(request, friday));
+
+        assertEquals(1, received.size());
+        assertEquals(Set.of(monday, tuesday, friday), CalendarChange.datesOf(received.get(0)));
+        assertEquals(20, received.get(0).size());
+        assertTrue(received.get(0).stream().allMatch(change -> change.kind() == CalendarChange.Kind.MOVED && change.date().equals(friday)));
+        // 원래 날짜 둘과 새 날짜 하나만 바뀐다.
+        assertEquals(before + 3, manager.getVersion());
+        assertEquals(List.of(stays.getId()), manager.getEventsForDate(monday).stream().map(Event::getId).toList());
+        assertTrue(manager.getEventsForDate(tuesday).isEmpty());
+        assertEquals(20, manager.getEventsForDate(friday).size());
+        assertSorted(manager.getEventsForDate(friday));
+        manager.verifyIndexes();
+
+        // 이미 그 날짜에 있으면 아무 일도 하지 않는다.
+        assertEquals(0, manager.moveEvents(ids, friday));
+        assertEquals(1, received.size());
+
+        manager.close();
+        CalendarDataManager reopened = open(notesFile);
+        assertEquals(1, reopened.getEventsForDate(monday).size());
+        assertEquals(20, reopened.getEventsForDate(friday).size());
+        reopened.verifyIndexes();
+    }
+
+    @Test
+    public void executorListenersReceiveCoalescedBatches() {
+        CalendarDataManager manager = open(tempDir.resolve("notes.json"));
+        Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        List<List<CalendarChange>> received = new ArrayList<>();
+        CalendarChangeListener listener = received::add;
+        manager.addChangeListener(listener, tasks::add);
+        LocalDate date = LocalDate.of(2024, 5, 22);
+
+        // 전달되기 전에 쌓인 변경은 한 번에 넘어온다.
+        for (int i = 0; i < 10; i++) {
+            manager.addEventForDate(date, new Event("일정 " + i, ""));
+        }
+        assertEquals(1, tasks.size());
+        tasks.poll().run();
+        assertEquals(1, received.size());
+        assertEquals(10, received.get(0).size());
+
+        // 너무 많으면 날짜별 BULK 하나로 줄인다.
+        for (int i = 0; i <= CalendarChange.BULK_THRESHOLD; i++) {
+            manager.addEventForDate(date.plusDays(i % 2), new Event("더 많은 일정 " + i, ""));
+        }
+        tasks.poll().run();
+        assertEquals(List.of(new CalendarChange(CalendarChange.Kind.BULK, date, null),
+                new CalendarChange(CalendarChange.Kind.BULK, date.plusDays(1), null)), received.get(1));
+
+        manager.removeChangeListener(listener);
+        manager.addEventForDate(date, new Event("뗀 뒤", ""));
+        assertTrue(tasks.isEmpty());
+    }
+
+    @Test
+    public void journalDropsOnlyATornTailAndKeepsRecordsAfterCorruption() throws Exception {
+        LocalDate date = LocalDate.of(2024, 5, 22);
+        Path journalFile = tempDir.resolve("notes.journal");
+        Path rotatedFile = tempDir.resolve("notes.journal.old");
+        CalendarJournal journal = new CalendarJournal(journalFile, CalendarDataManager.createGsonBuilder().create());
+        for (int i = 0; i < 3; i++) {
+            journal.append(Map.of(date.plusDays(i), List.of(new Event("일정 " + i, ""))), false);
+        }
+        assertTrue(journal.rotate());
+        List<String> lines = Files.readAllLines(rotatedFile, StandardCharsets.UTF_8);
+
+        // 중간 줄이 깨져도 뒤의 기록은 살아 있고, 원본은 .corrupt 로 남는다.
+        Files.write(rotatedFile, List.of(lines.get(0), "{\"days\": {garbage", lines.get(2)), StandardCharsets.UTF_8);
+        Map<LocalDate, List<Event>> days = journal.readRotated();
+        assertEquals(Set.of(date, date.plusDays(2)), days.keySet());
+        assertTrue(Files.exists(tempDir.resolve("notes.journal.old.corrupt")));
+        assertEquals(3, Files.readAllLines(rotatedFile, StandardCharsets.UTF_8).size());
+
+        // 끊긴 마지막 줄만 버리고 잘라낸다.
+        Files.writeString(rotatedFile, lines.get(0) + "\n" + lines.get(1) + "\n" + lines.get(2).substring(0, 10), StandardCharsets.UTF_8);
+        days = journal.readRotated();
+        assertEquals(Set.of(date, date.plusDays(1)), days.keySet());
+        assertEquals(lines.subList(0, 2), Files.readAllLines(rotatedFile, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void binarySegmentCanBeRewrittenAfterItWasRead() throws Exception {
+        Path notesFile = tempDir.resolve("notes.json");
+        LocalDate date = LocalDate.of(2024, 5, 22);
+        CalendarDataManager first = open(notesFile, MonthSegmentStore.SnapshotFormat.BINARY);
+        first.addEventForDate(date, new Event("회의", "10:00"));
+        first.close();
+
+        // 세그먼트를 읽어 둔 채로 다음 실행의 압축이 같은 세그먼트를 교체한다.
+        CalendarDataManager second = open(notesFile, MonthSegmentStore.SnapshotFormat.BINARY);
+        assertEquals(1, second.getEventsForDate(date).size());
+        second.addEventForDate(date, new Event("점심", "12:00"));
+        second.close();
+
+        CalendarDataManager third = open(notesFile, MonthSegmentStore.SnapshotFormat.BINARY);
+        assertEquals(List.of("회의", "점심"), third.getEventsForDate(date).stream().map(Event::getTitle).toList());
+        Path segment;
+        try (var files = Files.list(tempDir.resolve("notes.months"))) {
+            segment = files.filter(file -> file.toString().endsWith(".bin")).findFirst().orElseThrow();
+        }
+        Map<LocalDate, List<Event>> days = BinarySnapshotCodec.read(segment);
+        BinarySnapshotCodec.write(segment, Map.of(date, List.of(new Event("저녁", "18:00"))));
+        assertEquals(2, days.get(date).size());
+        assertEquals("저녁", BinarySnapshotCodec.read(segment).get(date).get(0).getTitle());
+    }
+
+    @Test
+    public void peekMonthReadsWithoutConvertingOrLoading() throws Exception {
+        Path notesFile = tempDir.resolve("notes.json");
+        LocalDate date = LocalDate.of(2023, 2, 14);
+        CalendarDataManager binary = open(notesFile, MonthSegmentStore.SnapshotFormat.BINARY);
+        binary.addEventForDate(date, new Event("발렌타인", "19:00"));
+        binary.close();
+        // 한 번 더 열어 로그를 .bin 세그먼트로 접어 둔다.
+        open(notesFile, MonthSegmentStore.SnapshotFormat.BINARY).close();
+
+        CalendarDataManager json = open(notesFile, MonthSegmentStore.SnapshotFormat.JSON);
+        Map<LocalDate, List<Event>> peeked = json.peekMonth(YearMonth.from(date));
+        assertEquals("발렌타인", peeked.get(date).get(0).getTitle());
+        // 형식을 바꿔 쓰지도, 달을 올리지도 않는다. 바꿔 쓰는 것은 저장소가 그 달을 올릴 때의 일이다.
+        assertFalse(Files.exists(tempDir.resolve("notes.months").resolve("2023-02.json")));
+        assertEquals(0, json.getResidentMonthCount());
+    }
+
+    private static void run(Runnable task, CountDownLatch start, Queue<Throwable> failures) {
+        try {
+            start.await();
+            task.run();
+        } catch (Throwable t) {
+            failures.add(t);
+        }
+    }
+
+    private static void assertSorted(List<Event> events) {
+        for (int i = 1; i < events.size(); i++) {
+            assertTrue(events.get(i - 1).getMinuteOfDay() <= events.get(i).getMinuteOfDay(), "events out of time order");
+        }
+    }
+}
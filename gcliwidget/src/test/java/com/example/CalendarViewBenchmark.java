@@ -0,0 +1,187 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+
+import javafx.scene.Scene;
+
+/**
+ * CalendarView 의 화면 비용을 하루 일정 수별로 재서 JSON 으로 남긴다.
+ * redraw 한 번당 배치 시간/할당량/노드 수, 미리 만들어 둔 옆 달로 넘길 때와 멀리 건너뛸 때의 달 넘김 지연을 잰다.
+ * 결과는 target/ui-bench/calendar-view.json 에 쓰고, -Dgcliwidget.bench.baseline=<이전 결과> 를 주면
+ * 그보다 눈에 띄게 느려졌거나 노드가 늘었을 때 실패한다. 저장소에는 아직 기준 결과가 없으므로, 글꼴 라이브러리가 있는
+ * 머신에서 처음 잰 결과를 target 밖에 복사해 두고 그 경로를 baseline 으로 준다.
+ * 화면 없이 Monocle 로 실행한다: mvn -Pui-bench test -Dtest=CalendarViewBenchmark
+ */
+public class CalendarViewBenchmark {
+
+    private static final int[] DENSITIES = {0, 3, 20, 60};
+    private static final YearMonth FIRST_MONTH = YearMonth.of(2024, 1);
+    private static final int MONTHS = 6;
+    private static final int WARMUP = 20;
+    private static final int ROUNDS = 50;
+    private static final int SWITCH_ROUNDS = 10;
+    // 기준 결과보다 이 배수를 넘게 느려지면 실패한다. 노드 수는 10% 까지만 늘어도 된다.
+    private static final double TIME_TOLERANCE = Double.parseDouble(System.getProperty("gcliwidget.bench.tolerance", "1.5"));
+    private static final double NODE_TOLERANCE = 1.1;
+
+    record DensityResult(int eventsPerDay, double redrawMillis, double redrawAllocKb, int nodes,
+            double nearSwitchMillis, double farSwitchMillis) {}
+
+    record Report(String createdAt, String javaVersion, List<DensityResult> results) {}
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void measureRenderingCost() throws Exception {
+        HeadlessFx.start();
+        List<DensityResult> results = new ArrayList<>();
+        for (int density : DENSITIES) {
+            CalendarDataManager manager = new CalendarDataManager(tempDir.resolve("density-" + density).resolve("notes.json"));
+            try {
+                fill(manager, density);
+                results.add(measure(manager, density));
+            } finally {
+                manager.close();
+            }
+        }
+
+        System.out.printf("%-8s %10s %10s %8s %12s %12s%n", "per day", "redraw", "alloc", "nodes", "near switch", "far switch");
+        for (DensityResult result : results) {
+            System.out.printf("%-8d %8.2fms %8.1fKB %8d %10.2fms %10.2fms%n", result.eventsPerDay(), result.redrawMillis(),
+                    result.redrawAllocKb(), result.nodes(), result.nearSwitchMillis(), result.farSwitchMillis());
+        }
+
+        Gson gson = new GsonBuilder().setPrettyPrinting().create();
+        Report report = new Report(Instant.now().toString(), System.getProperty("java.version"), results);
+        Path output = Paths.get(System.getProperty("gcliwidget.bench.output", "target/ui-bench")).resolve("calendar-view.json");
+        Files.createDirectories(output.getParent());
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            gson.toJson(report, writer);
+        }
+        System.out.println("Results written to " + output.toAbsolutePath());
+
+        // 하루 일정이 20배여도 노드는 보이는 줄 수에 묶여 있어야 한다.
+        assertTrue(results.get(3).nodes() < results.get(1).nodes() * 3, "event rows are not virtualized");
+
+        String baseline = System.getProperty("gcliwidget.bench.baseline");
+        if (baseline != null) {
+            try (Reader reader = Files.newBufferedReader(Paths.get(baseline), StandardCharsets.UTF_8)) {
+                compare(gson.fromJson(reader, Report.class), results);
+            }
+        }
+    }
+
+    private DensityResult measure(CalendarDataManager manager, int density) throws Exception {
+        CalendarView view = HeadlessFx.call(() -> new CalendarView(FIRST_MONTH.atDay(1), manager));
+        Scene scene = HeadlessFx.call(() -> new Scene(view, 1200, 800));
+        awaitReady(view, FIRST_MONTH);
+
+        long[] redraw = HeadlessFx.call(() -> {
+            long totalNanos = 0;
+            long totalBytes = 0;
+            for (int round = 0; round < WARMUP + ROUNDS; round++) {
+                long bytes = HeadlessFx.allocatedBytes();
+                long start = System.nanoTime();
+                view.redraw();
+                scene.getRoot().applyCss();
+                scene.getRoot().layout();
+                long elapsed = System.nanoTime() - start;
+                bytes = HeadlessFx.allocatedBytes() - bytes;
+                if (round >= WARMUP) {
+                    totalNanos += elapsed;
+                    totalBytes += bytes;
+                }
+            }
+            return new long[] {totalNanos / ROUNDS, totalBytes / ROUNDS, HeadlessFx.countNodes(scene.getRoot())};
+        });
+
+        // 옆 달은 미리 만들어 두므로 거의 바로 바뀌어야 한다. 앞뒤로 오가며 잰다.
+        long nearNanos = 0;
+        for (int round = 0; round < SWITCH_ROUNDS; round++) {
+            Thread.sleep(50);
+            nearNanos += switchTo(view, scene, FIRST_MONTH.plusMonths(1 - round % 2));
+        }
+        // 멀리 건너뛰면 모델을 새로 만들어야 한다. 양끝을 오가면 이전 달 모델은 버려져 있다.
+        long farNanos = 0;
+        for (int round = 0; round < SWITCH_ROUNDS; round++) {
+            farNanos += switchTo(view, scene, FIRST_MONTH.plusMonths(round % 2 == 0 ? MONTHS - 1 : 0));
+        }
+
+        return new DensityResult(density, redraw[0] / 1e6, redraw[1] / 1024.0, (int) redraw[2],
+                nearNanos / 1e6 / SWITCH_ROUNDS, farNanos / 1e6 / SWITCH_ROUNDS);
+    }
+
+    // 달을 바꾸고 그 달의 일정이 칸에 다 들어가 배치될 때까지 걸린 시간.
+    private static long switchTo(CalendarView view, Scene scene, YearMonth month) throws Exception {
+        long start = System.nanoTime();
+        HeadlessFx.call(() -> {
+            view.showMonth(month);
+            return null;
+        });
+        awaitReady(view, month);
+        HeadlessFx.call(() -> {
+            scene.getRoot().applyCss();
+            scene.getRoot().layout();
+            return null;
+        });
+        return System.nanoTime() - start;
+    }
+
+    private static void awaitReady(CalendarView view, YearMonth month) throws Exception {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!HeadlessFx.call(() -> view.isMonthReady(month))) {
+            if (System.nanoTime() > deadline) throw new IllegalStateException(month + " was not ready in time");
+        }
+    }
+
+    private static void compare(Report baseline, List<DensityResult> results) {
+        List<String> regressions = new ArrayList<>();
+        for (DensityResult result : results) {
+            for (DensityResult before : baseline.results()) {
+                if (before.eventsPerDay() != result.eventsPerDay()) continue;
+                String label = result.eventsPerDay() + "/day ";
+                check(regressions, label + "redraw", before.redrawMillis(), result.redrawMillis(), TIME_TOLERANCE);
+                check(regressions, label + "far switch", before.farSwitchMillis(), result.farSwitchMillis(), TIME_TOLERANCE);
+                check(regressions, label + "nodes", before.nodes(), result.nodes(), NODE_TOLERANCE);
+            }
+        }
+        assertTrue(regressions.isEmpty(), "rendering regressions: " + regressions);
+    }
+
+    private static void check(List<String> regressions, String label, double before, double now, double tolerance) {
+        if (before > 0 && now > before * tolerance) {
+            regressions.add(String.format("%s %.2f -> %.2f", label, before, now));
+        }
+    }
+
+    private static void fill(CalendarDataManager manager, int eventsPerDay) {
+        for (int month = 0; month < MONTHS; month++) {
+            YearMonth yearMonth = FIRST_MONTH.plusMonths(month);
+            for (int day = 1; day <= yearMonth.lengthOfMonth(); day++) {
+                LocalDate date = yearMonth.atDay(day);
+                for (int i = 0; i < eventsPerDay; i++) {
+                    manager.addEventForDate(date, new Event("일정 " + i, String.format("%02d:%02d", (i / 4) % 24, (i % 4) * 15)));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.gson.GsonBuilder;
+
+import javafx.scene.Scene;
+
+/**
+ * 바쁜 달(하루 60개)과 한가한 달(하루 3개)의 redraw 한 번당 배치 시간, 할당량, 노드 수 비교.
+ * 일정 목록이 가상화되어 있으면 노드 수와 할당량이 하루 일정 수에 거의 비례하지 않아야 한다.
+ * 결과는 표로 찍고 target/ui-bench/day-cell-layout.json 에도 남겨서 리뷰에 붙일 수 있게 한다.
+ * 화면 없이 Monocle 로 실행한다: mvn -Pui-bench test -Dtest=DayCellLayoutBenchmark
+ */
+public class DayCellLayoutBenchmark {
+
+    private static final int WARMUP = 20;
+    private static final int ROUNDS = 50;
+
+    record MonthResult(String label, int eventsPerDay, double layoutMillis, double allocKb, long nodes) {}
+
+    record Report(String createdAt, String javaVersion, List<MonthResult> results) {}
+
+    @TempDir
+    Path tempDir;
+
+    private CalendarDataManager manager;
+
+    @AfterEach
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Test
+    public void busyDaysStayBounded() throws Exception {
+        HeadlessFx.start();
+        manager = new CalendarDataManager(tempDir.resolve("notes.json"));
+        YearMonth light = YearMonth.of(2024, 4);
+        YearMonth busy = YearMonth.of(2024, 5);
+        fill(light, 3);
+        fill(busy, 60);
+
+        long[] lightResult = HeadlessFx.call(() -> measure(light));
+        long[] busyResult = HeadlessFx.call(() -> measure(busy));
+
+        System.out.printf("%-8s %12s %12s %10s%n", "month", "layout", "alloc", "nodes");
+        print("3/day", lightResult);
+        print("60/day", busyResult);
+        writeReport(List.of(result("3/day", 3, lightResult), result("60/day", 60, busyResult)));
+        // 하루 일정이 20배여도 실제로 만들어지는 노드는 보이는 줄 수에 묶여 있어야 한다.
+        assertTrue(busyResult[2] < lightResult[2] * 3, "event rows are not virtualized");
+    }
+
+    // {평균 ns, 평균 할당 바이트, 노드 수}
+    private long[] measure(YearMonth month) {
+        CalendarView view = new CalendarView(month.atDay(1), manager);
+        Scene scene = new Scene(view, 1200, 800);
+        long totalNanos = 0;
+        long totalBytes = 0;
+        for (int round = 0; round < WARMUP + ROUNDS; round++) {
+            long bytes = HeadlessFx.allocatedBytes();
+            long start = System.nanoTime();
+            view.redraw();
+            scene.getRoot().applyCss();
+            scene.getRoot().layout();
+            long elapsed = System.nanoTime() - start;
+            bytes = HeadlessFx.allocatedBytes() - bytes;
+            if (round >= WARMUP) {
+                totalNanos += elapsed;
+                totalBytes += bytes;
+            }
+        }
+        return new long[] {totalNanos / ROUNDS, totalBytes / ROUNDS, HeadlessFx.countNodes(scene.getRoot())};
+    }
+
+    private void fill(YearMonth month, int eventsPerDay) {
+        for (int day = 1; day <= month.lengthOfMonth(); day++) {
+            LocalDate date = month.atDay(day);
+            for (int i = 0; i < eventsPerDay; i++) {
+                manager.addEventForDate(date, new Event("일정 " + i, String.format("%02d:%02d", (i / 4) % 24, (i % 4) * 15)));
+            }
+        }
+    }
+
+    private static MonthResult result(String label, int eventsPerDay, long[] result) {
+        return new MonthResult(label, eventsPerDay, result[0] / 1e6, result[1] / 1024.0, result[2]);
+    }
+
+    private static void writeReport(List<MonthResult> results) throws IOException {
+        Path output = Paths.get(System.getProperty("gcliwidget.bench.output", "target/ui-bench")).resolve("day-cell-layout.json");
+        Files.createDirectories(output.getParent());
+        try (Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+            new GsonBuilder().setPrettyPrinting().create()
+                    .toJson(new Report(Instant.now().toString(), System.getProperty("java.version"), results), writer);
+        }
+        System.out.println("Results written to " + output.toAbsolutePath());
+    }
+
+    private static void print(String label, long[] result) {
+        System.out.printf("%-8s %10.2fms %10.1fKB %10d%n", label, result[0] / 1e6, result[1] / 1024.0, result[2]);
+    }
+}
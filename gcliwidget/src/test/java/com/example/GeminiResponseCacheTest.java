@@ -0,0 +1,97 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+public class GeminiResponseCacheTest {
+
+    private final AtomicLong version = new AtomicLong();
+    private final MutableClock clock = new MutableClock(Instant.parse("2024-05-22T09:00:00Z"));
+    private final GeminiResponseCache cache = new GeminiResponseCache(version::get, clock, 2, Duration.ofMinutes(10));
+
+    @Test
+    public void nearIdenticalPromptsShareAnEntry() {
+        cache.put(cache.keyFor("오늘 일정 정리해줘"), "{\"actions\": []}");
+        assertEquals(Optional.of("{\"actions\": []}"), cache.get(cache.keyFor("  오늘   일정 정리해줘!! ")));
+        assertEquals(Optional.empty(), cache.get(cache.keyFor("내일 일정 정리해줘")));
+        GeminiResponseCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    public void scheduleChangeAndNewDayMakeEntriesStale() {
+        cache.put(cache.keyFor("정리"), "a");
+        version.incrementAndGet();
+        assertTrue(cache.get(cache.keyFor("정리")).isEmpty());
+
+        cache.put(cache.keyFor("정리"), "b");
+        clock.advance(Duration.ofHours(16));
+        assertTrue(cache.get(cache.keyFor("정리")).isEmpty());
+    }
+
+    @Test
+    public void replyForAnOlderVersionIsDroppedWithoutEvictingCurrentEntries() {
+        GeminiResponseCache.Key before = cache.keyFor("회의 추가해줘");
+        version.incrementAndGet();
+        assertTrue(cache.put(cache.keyFor("정리"), "current"));
+
+        // 요청하는 사이 일정이 바뀌었다. 지난 버전의 키로는 넣지 않고, 지금 버전의 항목도 그대로 둔다.
+        assertFalse(cache.put(before, "stale"));
+        assertEquals(Optional.of("current"), cache.get(cache.keyFor("정리")));
+        assertTrue(cache.get(before).isEmpty());
+        assertEquals(1, cache.stats().entries());
+    }
+
+    @Test
+    public void evictsExpiredAndLeastRecentlyUsedEntries() {
+        cache.put(cache.keyFor("one"), "1");
+        cache.put(cache.keyFor("two"), "2");
+        cache.get(cache.keyFor("one"));
+        cache.put(cache.keyFor("three"), "3");
+        assertTrue(cache.get(cache.keyFor("two")).isEmpty());
+        assertEquals(Optional.of("1"), cache.get(cache.keyFor("one")));
+
+        clock.advance(Duration.ofMinutes(11));
+        assertTrue(cache.get(cache.keyFor("one")).isEmpty());
+        assertEquals(0, cache.stats().entries());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.google.gson.JsonObject;
+import com.sun.net.httpserver.HttpServer;
+
+public class GeminiServiceTest {
+
+    private HttpServer server;
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @AfterEach
+    public void tearDown() {
+        if (server != null) server.stop(0);
+    }
+
+    @Test
+    public void parserEmitsEachActionWhereverTheTextIsSplit() {
+        String text = "```json\n{\"actions\": [{\"action\": \"add_events\", \"events\": [{\"title\": \"a \\\"}]\\\" b\", \"date\": \"2024-05-22\"}]},"
+                + " {\"action\": \"copy_events\", \"source_date\": \"2024-05-21\", \"destination_date\": \"2024-05-23\"}]}\n```";
+        for (int split = 0; split <= text.length(); split++) {
+            List<JsonObject> actions = new ArrayList<>();
+            ActionStreamParser parser = new ActionStreamParser(actions::add);
+            parser.feed(text.substring(0, split));
+            parser.feed(text.substring(split));
+            assertEquals(2, actions.size(), "split at " + split);
+            assertEquals("a \"}]\" b", actions.get(0).getAsJsonArray("events").get(0).getAsJsonObject().get("title").getAsString());
+            assertEquals("copy_events", actions.get(1).get("action").getAsString());
+            assertEquals(text, parser.text());
+        }
+    }
+
+    @Test
+    public void appliesActionsBeforeTheStreamEnds() throws Exception {
+        List<String> events = recordedEvents("stream-three-actions.sse");
+        CountDownLatch firstAction = new CountDownLatch(1);
+        boolean[] sawActionMidStream = new boolean[1];
+        // 첫 동작이 닫히는 세 번째 이벤트까지 보낸 뒤, 클라이언트가 그 동작을 받을 때까지 나머지를 붙잡아 둔다.
+        startServer(events, 3, () -> sawActionMidStream[0] = firstAction.await(5, TimeUnit.SECONDS));
+
+        List<String> actions = new CopyOnWriteArrayList<>();
+        String text = service().streamContent("prompt", "", action -> {
+            actions.add(action.get("action").getAsString());
+            firstAction.countDown();
+        }).get(10, TimeUnit.SECONDS);
+
+        assertTrue(sawActionMidStream[0], "first action arrived only after the whole response");
+        assertEquals(List.of("add_events", "delete_events", "copy_events"), actions);
+        assertTrue(text.startsWith("{\"actions\": [") && text.endsWith("]}"), text);
+    }
+
+    @Test
+    public void repeatedPromptIsServedFromTheCache() throws Exception {
+        startServer(List.of("data: {\"candidates\": [{\"content\": {\"parts\": [{\"text\": \"{\\\"actions\\\": []}\"}]}}]}"), -1, () -> {});
+        GeminiService service = service();
+        for (int round = 0; round < 3; round++) {
+            assertEquals("{\"actions\": []}", service.streamContent("오늘 일정 정리해줘", "", action -> {}).get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void appliedRepliesAreNotServedAgainFromTheCache() throws Exception {
+        startServer(recordedEvents("stream-three-actions.sse"), -1, () -> {});
+        AtomicLong version = new AtomicLong();
+        GeminiService service = service(version);
+        List<String> expected = List.of("add_events", "delete_events", "copy_events");
+        for (int round = 0; round < 2; round++) {
+            List<String> actions = new CopyOnWriteArrayList<>();
+            service.streamContent("오늘 일정 정리해줘", "", action -> actions.add(action.get("action").getAsString()))
+                    .get(10, TimeUnit.SECONDS);
+            assertEquals(expected, actions);
+            // 받은 동작을 적용하면 저장소 버전이 올라간다. 그러면 같은 명령도 캐시에서 빗나가 다시 물어봐야 한다.
+            version.incrementAndGet();
+        }
+        assertEquals(2, requests.get());
+
+        // 버전이 그대로면 방금 받은 응답을 다시 쓴다.
+        List<String> replayed = new CopyOnWriteArrayList<>();
+        version.decrementAndGet();
+        service.streamContent("오늘 일정 정리해줘", "", action -> replayed.add(action.get("action").getAsString()))
+                .get(10, TimeUnit.SECONDS);
+        assertEquals(expected, replayed);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void errorEventFailsTheStream() throws Exception {
+        startServer(recordedEvents("stream-error.sse"), -1, () -> {});
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> service().streamContent("prompt", "", action -> {}).get(10, TimeUnit.SECONDS));
+        assertTrue(error.getCause().getMessage().contains("Resource has been exhausted"), error.getCause().getMessage());
+    }
+
+    private GeminiService service() {
+        return service(new AtomicLong());
+    }
+
+    private GeminiService service(AtomicLong version) {
+        return new GeminiService("test-key", "http://127.0.0.1:" + server.getAddress().getPort() + "/v1beta",
+                new GeminiResponseCache(version::get, Clock.systemUTC(), 16, Duration.ofMinutes(10)));
+    }
+
+    private interface Pause {
+        void await() throws InterruptedException;
+    }
+
+    // 녹음해 둔 SSE 이벤트를 하나씩 chunked 로 흘려보내는 스텁 서버. pauseAfter 개를 보낸 뒤 pause 를 기다린다.
+    private void startServer(List<String> events, int pauseAfter, Pause pause) throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/v1beta/models/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            requests.incrementAndGet();
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            try (OutputStream body = exchange.getResponseBody()) {
+                for (int i = 0; i < events.size(); i++) {
+                    if (i == pauseAfter) pause.await();
+                    body.write((events.get(i) + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+                    body.flush();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+    }
+
+    private static List<String> recordedEvents(String name) throws IOException {
+        try (InputStream in = GeminiServiceTest.class.getResourceAsStream("/gemini/" + name)) {
+            String recorded = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            List<String> events = new ArrayList<>();
+            for (String event : recorded.split("\r\n\r\n")) {
+                if (!event.isBlank()) events.add(event);
+            }
+            return events;
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Deque;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+public class GeminiTransportTest {
+
+    private static final String OK_BODY = "{\"candidates\": [{\"content\": {\"parts\": [{\"text\": \"{\\\"actions\\\": []}\"}]}}]}";
+
+    private interface Fault {
+        void respond(HttpExchange exchange) throws IOException, InterruptedException;
+    }
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    // 요청이 올 때마다 앞에서 하나씩 꺼내 응답한다. 비어 있으면 200.
+    private final Deque<Fault> script = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger requests = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverThreads = Executors.newCachedThreadPool();
+        server.setExecutor(serverThreads);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            requests.incrementAndGet();
+            Fault fault = script.poll();
+            try {
+                if (fault == null) reply(exchange, 200, OK_BODY);
+                else fault.respond(exchange);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        server.stop(0);
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    public void retriesServerErrorsWithBackoff() throws Exception {
+        script.add(exchange -> reply(exchange, 503, "unavailable"));
+        script.add(exchange -> reply(exchange, 502, "bad gateway"));
+        HttpResponse<String> response = send(transport(config(3, 5)));
+        assertEquals(200, response.statusCode());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    public void honorsRetryAfter() throws Exception {
+        script.add(exchange -> {
+            exchange.getResponseHeaders().add("Retry-After", "1");
+            reply(exchange, 429, "slow down");
+        });
+        long start = System.nanoTime();
+        assertEquals(200, send(transport(config(3, 5))).statusCode());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 1000);
+    }
+
+    @Test
+    public void givesUpAfterMaxAttemptsAndReturnsTheLastResponse() throws Exception {
+        for (int i = 0; i < 3; i++) script.add(exchange -> reply(exchange, 500, "boom " + requests.get()));
+        HttpResponse<String> response = send(transport(config(3, 5)));
+        assertEquals(500, response.statusCode());
+        assertEquals("boom 3", response.body());
+    }
+
+    @Test
+    public void doesNotRetryClientErrors() throws Exception {
+        script.add(exchange -> reply(exchange, 400, "bad request"));
+        assertEquals(400, send(transport(config(3, 5))).statusCode());
+        assertEquals(1, requests.get());
+    }
+
+    @Test
+    public void timesOutAHungRequestAndRetries() throws Exception {
+        script.add(exchange -> Thread.sleep(3000));
+        long start = System.nanoTime();
+        assertEquals(200, send(transport(config(2, 5))).statusCode());
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 2500);
+        assertEquals(2, requests.get());
+    }
+
+    @Test
+    public void circuitOpensAfterRepeatedFailuresAndClosesAfterATrial() throws Exception {
+        GeminiTransport transport = transport(config(1, 3));
+        for (int i = 0; i < 3; i++) {
+            script.add(exchange -> reply(exchange, 503, "unavailable"));
+            assertEquals(503, send(transport).statusCode());
+        }
+        ExecutionException open = assertThrows(ExecutionException.class, () -> send(transport));
+        assertInstanceOf(GeminiTransport.CircuitOpenException.class, open.getCause());
+        assertEquals(3, requests.get());
+
+        Thread.sleep(250);
+        assertEquals(200, send(transport).statusCode());
+        assertEquals(200, send(transport).statusCode());
+        assertEquals(5, requests.get());
+    }
+
+    @Test
+    public void retriedRequestCountsAsOneFailure() throws Exception {
+        GeminiTransport transport = transport(config(3, 2));
+        for (int i = 0; i < 3; i++) script.add(exchange -> reply(exchange, 503, "unavailable"));
+        assertEquals(503, send(transport).statusCode());
+        assertEquals(3, requests.get());
+        // 다시 보낸 시도까지 셌다면 여기서 이미 열려 있다.
+        assertEquals(200, send(transport).statusCode());
+    }
+
+    @Test
+    public void stalledStreamFailsWithTimeout() throws Exception {
+        script.add(exchange -> {
+            exchange.getResponseHeaders().add("Content-Type", "text/event-stream");
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream body = exchange.getResponseBody();
+            body.write("data: {\"candidates\": []}\r\n\r\n".getBytes(StandardCharsets.UTF_8));
+            body.flush();
+            Thread.sleep(5000);
+        });
+        GeminiService service = new GeminiService("test-key", baseUrl(),
+                new GeminiResponseCache(() -> 0, Clock.systemUTC(), 16, Duration.ofMinutes(10)), transport(config(1, 5)));
+        ExecutionException error = assertThrows(ExecutionException.class,
+                () -> service.streamContent("prompt", "", action -> {}).get(4, TimeUnit.SECONDS));
+        assertInstanceOf(HttpTimeoutException.class, error.getCause());
+    }
+
+    private static GeminiTransport.Config config(int maxAttempts, int breakerThreshold) {
+        return new GeminiTransport.Config(Duration.ofSeconds(2), Duration.ofMillis(500), Duration.ofMillis(500),
+                maxAttempts, Duration.ofMillis(10), Duration.ofMillis(100), Duration.ofSeconds(5),
+                breakerThreshold, Duration.ofMillis(200));
+    }
+
+    private static GeminiTransport transport(GeminiTransport.Config config) {
+        return new GeminiTransport(config);
+    }
+
+    private String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + "/v1beta";
+    }
+
+    private HttpResponse<String> send(GeminiTransport transport) throws Exception {
+        return transport.send(transport.newRequest(URI.create(baseUrl() + "/models/test:generateContent")).POST(
+                HttpRequest.BodyPublishers.ofString("{}")).build(), HttpResponse.BodyHandlers.ofString())
+                .get(10, TimeUnit.SECONDS);
+    }
+
+    private static void reply(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+}
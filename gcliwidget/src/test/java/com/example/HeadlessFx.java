@@ -0,0 +1,65 @@
+package com.example;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+
+import javafx.application.Platform;
+import javafx.scene.Node;
+import javafx.scene.Parent;
+
+/**
+ * 화면 없이 JavaFX 를 띄우는 벤치마크용 도우미. Monocle Headless 플랫폼이 클래스패스에 있어야 한다(mvn -Pui-bench).
+ */
+final class HeadlessFx {
+
+    private static boolean started;
+
+    private HeadlessFx() {
+    }
+
+    static synchronized void start() throws InterruptedException {
+        if (started) return;
+        System.setProperty("glass.platform", System.getProperty("glass.platform", "Monocle"));
+        System.setProperty("monocle.platform", System.getProperty("monocle.platform", "Headless"));
+        System.setProperty("prism.order", System.getProperty("prism.order", "sw"));
+        CountDownLatch latch = new CountDownLatch(1);
+        Platform.startup(latch::countDown);
+        if (!latch.await(30, TimeUnit.SECONDS)) {
+            throw new IllegalStateException("JavaFX toolkit did not start");
+        }
+        started = true;
+    }
+
+    static <T> T call(Callable<T> task) throws Exception {
+        FutureTask<T> future = new FutureTask<>(task);
+        Platform.runLater(future);
+        try {
+            return future.get(60, TimeUnit.SECONDS);
+        } catch (ExecutionException e) {
+            // 글자를 처음 그릴 때 네이티브 글꼴 라이브러리를 올린다. Linux 에서는 libpango/libfreetype 이 있어야 한다.
+            if (e.getCause() instanceof UnsatisfiedLinkError) {
+                throw new IllegalStateException("JavaFX native libraries are missing, install pango/freetype to run ui-bench", e.getCause());
+            }
+            throw e;
+        }
+    }
+
+    // 현재 스레드가 지금까지 할당한 바이트 수. FX 스레드 안에서 앞뒤로 재서 뺀다.
+    static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getCurrentThreadAllocatedBytes();
+    }
+
+    static int countNodes(Node node) {
+        int count = 1;
+        if (node instanceof Parent parent) {
+            for (Node child : parent.getChildrenUnmodifiable()) {
+                count += countNodes(child);
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,46 @@
+package com.example;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * 말뭉치(local-commands.tsv)의 명령 하나를 로컬에서 해석하는 데 드는 평균 시간.
+ * 기본 테스트 실행에는 포함되지 않는다: mvn test -Dtest=LocalCommandParserBenchmark
+ */
+public class LocalCommandParserBenchmark {
+
+    private static final int WARMUP = 50;
+    private static final int ROUNDS = 200;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void parseCorpus() throws Exception {
+        CalendarDataManager manager = new CalendarDataManager(tempDir.resolve("notes.json"));
+        try {
+            LocalCommandParser parser = LocalCommandParserTest.corpusParser(manager);
+            List<String> commands = new ArrayList<>();
+            for (String line : LocalCommandParserTest.readCorpus()) {
+                if (line.isBlank() || line.startsWith("#")) continue;
+                commands.add(line.split("\t")[0]);
+            }
+
+            for (int i = 0; i < WARMUP; i++) {
+                commands.forEach(parser::parse);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < ROUNDS; i++) {
+                commands.forEach(parser::parse);
+            }
+            System.out.printf("Local parse: %d commands, %.1f us per command%n", commands.size(),
+                    (System.nanoTime() - start) / 1000.0 / ROUNDS / commands.size());
+        } finally {
+            manager.close();
+        }
+    }
+}
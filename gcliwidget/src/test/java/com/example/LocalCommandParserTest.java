@@ -0,0 +1,97 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+
+public class LocalCommandParserTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 22);
+
+    @TempDir
+    Path tempDir;
+
+    private CalendarDataManager manager;
+    private LocalCommandParser parser;
+
+    @BeforeEach
+    public void setUp() {
+        manager = new CalendarDataManager(tempDir.resolve("notes.json"));
+        parser = corpusParser(manager);
+    }
+
+    // 말뭉치가 기대하는 일정을 넣고, 오늘 오전 9시에 멈춘 시계로 파서를 만든다.
+    static LocalCommandParser corpusParser(CalendarDataManager manager) {
+        manager.addEventForDate(TODAY, new Event("운동", "18:00"));
+        manager.addEventForDate(TODAY, new Event("팀 미팅", "15:00"));
+        manager.addEventForDate(TODAY, new Event("Standup", "09:30"));
+        manager.addEventForDate(TODAY.plusDays(1), new Event("프로젝트 보고서 제출", ""));
+        manager.addEventForDate(TODAY.minusDays(1), new Event("운동", "18:00"));
+        manager.toggleEventCompletion(TODAY.minusDays(1), "운동");
+        manager.addEventForDate(TODAY.plusDays(2), new Event("치과 예약", "10:00"));
+        manager.addEventForDate(TODAY.plusDays(2), new Event("치과 결제", ""));
+        Clock clock = Clock.fixed(TODAY.atTime(9, 0).atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        return new LocalCommandParser(manager, clock, 0.8);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Test
+    public void corpus() throws IOException {
+        Gson gson = new Gson();
+        List<String> mismatches = new ArrayList<>();
+        for (String line : readCorpus()) {
+            if (line.isBlank() || line.startsWith("#")) continue;
+            String[] columns = line.split("\t");
+            Optional<JsonObject> parsed = parser.parse(columns[0]);
+            String expected = columns[1];
+            String actual = parsed.map(response -> gson.toJson(response.getAsJsonArray("actions").get(0))).orElse("-");
+            boolean same = expected.equals("-") ? parsed.isEmpty()
+                    : parsed.isPresent() && gson.fromJson(expected, JsonObject.class).equals(response(parsed));
+            if (!same) mismatches.add(columns[0] + "\n    expected " + expected + "\n    actual   " + actual);
+        }
+        assertTrue(mismatches.isEmpty(), String.join("\n", mismatches));
+    }
+
+    @Test
+    public void thresholdDecidesWhatFallsBackToGemini() {
+        // 오전/오후 없는 3시는 확신도가 낮아 기본 문턱에서는 Gemini 로 넘어가지만, 해석 자체는 있다.
+        LocalCommandParser.Parse parse = parser.analyze("오늘 3시 회의");
+        assertTrue(parse.confidence() < 0.8);
+        assertEquals("03:00", parse.action().getAsJsonArray("events").get(0).getAsJsonObject().get("time").getAsString());
+        Clock clock = Clock.fixed(TODAY.atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        assertTrue(new LocalCommandParser(manager, clock, 0.5).parse("오늘 3시 회의").isPresent());
+        assertTrue(new LocalCommandParser(manager, clock, 1.1).parse("내일 15시 팀 미팅").isEmpty());
+    }
+
+    private static JsonObject response(Optional<JsonObject> parsed) {
+        return parsed.get().getAsJsonArray("actions").get(0).getAsJsonObject();
+    }
+
+    static List<String> readCorpus() throws IOException {
+        try (InputStream in = LocalCommandParserTest.class.getResourceAsStream("/local-commands.tsv")) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneId;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class MonthModelCacheTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 22);
+    private static final YearMonth MAY = YearMonth.from(TODAY);
+
+    @TempDir
+    Path tempDir;
+
+    private CalendarDataManager manager;
+    private MonthModelCache cache;
+
+    @BeforeEach
+    public void setUp() {
+        manager = new CalendarDataManager(tempDir.resolve("notes.json"));
+        Clock clock = Clock.fixed(TODAY.atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        cache = new MonthModelCache(manager, clock);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        cache.close();
+        manager.close();
+    }
+
+    @Test
+    public void buildsSortedDaysWithFlags() {
+        manager.addEventForDate(TODAY, new Event("저녁", "19:00"));
+        manager.addEventForDate(TODAY, new Event("아침", "08:00"));
+        manager.addEventForDate(TODAY.plusDays(1), new Event("끝난 일", ""));
+        manager.toggleEventCompletion(TODAY.plusDays(1), "끝난 일");
+
+        MonthModel model = cache.get(MAY).join();
+        assertEquals(MonthModel.SLOT_COUNT, model.slots().size());
+        // 2024-05-01 은 수요일이므로 일요일부터 세 칸은 비어 있다.
+        assertNull(model.slots().get(2));
+        assertEquals(LocalDate.of(2024, 5, 1), model.slots().get(3).date());
+
+        MonthModel.DayModel today = model.slots().get(3 + TODAY.getDayOfMonth() - 1);
+        assertTrue(today.today());
+        assertFalse(today.allCompleted());
+        assertEquals("아침", today.events().get(0).getTitle());
+        assertTrue(model.slots().get(3 + TODAY.getDayOfMonth()).allCompleted());
+    }
+
+    @Test
+    public void dropsOnlyTheChangedMonth() {
+        MonthModel may = cache.get(MAY).join();
+        MonthModel june = cache.get(MAY.plusMonths(1)).join();
+        assertSame(may, cache.getIfReady(MAY));
+
+        manager.addEventForDate(TODAY, new Event("새 일정", ""));
+        assertFalse(cache.isCurrent(may));
+        assertNull(cache.getIfReady(MAY));
+        assertTrue(cache.isCurrent(june));
+
+        MonthModel rebuilt = cache.get(MAY).join();
+        assertTrue(cache.isCurrent(rebuilt));
+        assertEquals("새 일정", rebuilt.slots().get(3 + TODAY.getDayOfMonth() - 1).events().get(0).getTitle());
+    }
+
+    @Test
+    public void prefetchesNeighboursAndForgetsFarMonths() {
+        cache.get(MAY.minusMonths(5)).join();
+        cache.prefetchAround(MAY);
+        assertNotNull(cache.get(MAY.minusMonths(1)).join());
+        assertNotNull(cache.get(MAY.plusMonths(1)).join());
+        assertNotNull(cache.getIfReady(MAY.plusMonths(1)));
+        assertNull(cache.getIfReady(MAY.minusMonths(5)));
+    }
+}
@@ -0,0 +1,151 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class NotificationServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 5, 22);
+
+    @TempDir
+    Path tempDir;
+
+    private CalendarDataManager manager;
+    private NotificationService service;
+    private Clock clock;
+    private final BlockingQueue<String> fired = new LinkedBlockingQueue<>();
+
+    @BeforeEach
+    public void setUp() {
+        manager = new CalendarDataManager(tempDir.resolve("notes.json"));
+        // 실제 시간으로 흐르되, 시작 시점이 DAY 08:59:59 인 시계. 10:00 일정의 알림은 약 1초 뒤에 울려야 한다.
+        ZoneId zone = ZoneId.systemDefault();
+        Clock system = Clock.system(zone);
+        clock = Clock.offset(system, Duration.between(LocalDateTime.now(system), DAY.atTime(8, 59, 59)));
+        service = new NotificationService(manager, clock, (event, minutes) -> fired.add(event.getTitle() + "@" + LocalDateTime.now(clock)));
+    }
+
+    @AfterEach
+    public void tearDown() {
+        service.stop();
+        manager.close();
+    }
+
+    @Test
+    public void sleepsUntilTheNextReminderIsDue() throws Exception {
+        manager.addEventForDate(DAY, new Event("회의", "10:00"));
+        manager.addEventForDate(DAY, new Event("점심", "12:00"));
+        manager.addEventForDate(DAY, new Event("하루 종일", ""));
+        service.start();
+
+        String first = fired.poll(5, TimeUnit.SECONDS);
+        assertNotNull(first);
+        assertTrue(first.startsWith("회의@"));
+        // 알림 시각(09:00) 전에 울리면 안 된다.
+        assertTrue(!LocalDateTime.parse(first.substring(first.indexOf('@') + 1)).isBefore(DAY.atTime(9, 0)));
+        assertNull(fired.poll(1500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void picksUpChangesAfterStart() throws Exception {
+        Event completed = new Event("끝난 일", "09:40");
+        completed.setCompleted(true);
+        manager.addEventForDate(DAY, completed);
+        service.start();
+
+        // 09:00 에 울릴 일정을 그 전에 지우면 알림이 울리지 않는다.
+        Event cancelled = new Event("취소됨", "10:00");
+        manager.addEventForDate(DAY, cancelled);
+        manager.deleteEvent(DAY, cancelled.getId());
+        assertNull(fired.poll(2500, TimeUnit.MILLISECONDS));
+
+        // 이미 알림 구간에 들어온 일정은 추가되자마자 알린다.
+        manager.addEventForDate(DAY, new Event("곧 시작", "09:30"));
+        assertEquals("곧 시작", title(fired.poll(2, TimeUnit.SECONDS)));
+    }
+
+    @Test
+    public void rearmsEditedEventsAndRemembersAcrossRestarts() throws Exception {
+        Event standup = new Event("스탠드업", "09:30");
+        manager.addEventForDate(DAY, standup);
+        service.start();
+        assertEquals("스탠드업", title(fired.poll(2, TimeUnit.SECONDS)));
+
+        // 시간을 고치면 다시 알림 대상이 된다.
+        Event edited = new Event(standup);
+        edited.setTime("09:45");
+        manager.updateEvent(DAY, edited);
+        assertEquals("스탠드업", title(fired.poll(2, TimeUnit.SECONDS)));
+
+        // 다시 시작해도 이미 알린 알림은 울리지 않는다.
+        service.stop();
+        service = new NotificationService(manager, clock, (event, minutes) -> fired.add(event.getTitle() + "@" + LocalDateTime.now(clock)));
+        service.start();
+        assertNull(fired.poll(1500, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void firesAtTheEventTimeAfterReopeningTheStore() throws Exception {
+        Path notesFile = tempDir.resolve("reopened.json");
+        CalendarDataManager writer = new CalendarDataManager(notesFile, MonthSegmentStore.SnapshotFormat.JSON);
+        writer.addEventForDate(DAY, new Event("회의", "10:00"));
+        writer.addEventForDate(DAY.plusDays(1), new Event("내일 회의", "10:00"));
+        writer.close();
+
+        // 디스크에서 읽은 일정도 시작 시각을 알아야 한다. 모르면 00:00 으로 보고 이미 지난 일정으로 건너뛴다.
+        CalendarDataManager reopened = new CalendarDataManager(notesFile, MonthSegmentStore.SnapshotFormat.JSON);
+        BlockingQueue<Long> minutesUntil = new LinkedBlockingQueue<>();
+        NotificationService restarted = new NotificationService(reopened, clock, (event, minutes) -> {
+            fired.add(event.getTitle() + "@" + LocalDateTime.now(clock));
+            minutesUntil.add(minutes);
+        });
+        try {
+            restarted.start();
+            assertEquals("회의", title(fired.poll(5, TimeUnit.SECONDS)));
+            long minutes = minutesUntil.poll(1, TimeUnit.SECONDS);
+            assertTrue(minutes >= 59 && minutes <= 60, "minutes until start: " + minutes);
+            assertNull(fired.poll(1500, TimeUnit.MILLISECONDS));
+        } finally {
+            restarted.stop();
+            reopened.close();
+        }
+    }
+
+    @Test
+    public void trackerExpiresPastReminders() {
+        Path file = tempDir.resolve("tracker.json");
+        NotifiedReminderTracker tracker = new NotifiedReminderTracker(file);
+        tracker.markNotified("a", DAY.atTime(9, 0));
+        tracker.markNotified("a", DAY.atTime(10, 0));
+        tracker.markNotified("b", DAY.plusDays(1).atTime(8, 0));
+
+        tracker.expire(DAY.atTime(9, 30));
+        NotifiedReminderTracker reloaded = new NotifiedReminderTracker(file);
+        assertEquals(2, reloaded.size());
+        assertTrue(reloaded.wasNotified("a", DAY.atTime(10, 0)));
+        assertFalse(reloaded.wasNotified("a", DAY.atTime(9, 0)));
+    }
+
+    private static String title(String firedEntry) {
+        assertNotNull(firedEntry);
+        return firedEntry.substring(0, firedEntry.indexOf('@'));
+    }
+}
@@ -0,0 +1,73 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+
+public class PromptBuilderTest {
+
+    @Test
+    public void templateFollowsTheDateAcrossMidnight() {
+        Instant beforeMidnight = Instant.parse("2024-05-22T23:59:00Z");
+        PromptBuilder today = new PromptBuilder(Clock.fixed(beforeMidnight, ZoneOffset.UTC));
+        PromptBuilder tomorrow = new PromptBuilder(Clock.offset(Clock.fixed(beforeMidnight, ZoneOffset.UTC), Duration.ofMinutes(2)));
+
+        String first = today.build("운동 끝났어", "No scheduled events.");
+        assertTrue(first.contains("The current date is 2024-05-22 23:59."));
+        assertTrue(first.contains("\"date\": \"2024-05-23\"}]}]}"), "tomorrow in the examples");
+        assertTrue(first.endsWith("CURRENT SCHEDULE: 운동 끝났어"));
+        assertEquals(first, today.build("운동 끝났어", "No scheduled events."));
+
+        String second = tomorrow.build("운동 끝났어", "No scheduled events.");
+        assertTrue(second.contains("The current date is 2024-05-23 00:01."));
+        assertTrue(second.contains("\"date\": \"2024-05-24\"}]}]}"));
+        assertFalse(second.contains("2024-05-22 23:59"));
+    }
+
+    @Test
+    public void estimatesHangulAsOneTokenPerCharacter() {
+        assertEquals(0, PromptBuilder.estimateTokens(""));
+        assertEquals(2, PromptBuilder.estimateTokens("calendar"));
+        assertEquals(4, PromptBuilder.estimateTokens("팀 미팅"));
+    }
+
+    @Test
+    public void rollsTheTemplateOverWithoutANewInstance() {
+        MutableClock clock = new MutableClock(Instant.parse("2024-05-22T23:59:00Z"));
+        PromptBuilder builder = new PromptBuilder(clock);
+        assertTrue(builder.build("x", "").contains("\"source_date\": \"2024-05-21\""));
+        clock.now = clock.now.plus(Duration.ofMinutes(1));
+        assertTrue(builder.build("x", "").contains("\"source_date\": \"2024-05-22\""));
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now;
+
+        MutableClock(Instant now) {
+            this.now = now;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ScheduleContextBuilderTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 5, 22);
+
+    @TempDir
+    Path tempDir;
+
+    private final Clock clock = Clock.fixed(TODAY.atStartOfDay(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+    private CalendarDataManager manager;
+    private ScheduleContextBuilder builder;
+
+    @BeforeEach
+    public void setUp() {
+        manager = new CalendarDataManager(tempDir.resolve("notes.json"));
+        builder = new ScheduleContextBuilder(manager, clock, 7, 60, 2);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        manager.close();
+    }
+
+    @Test
+    public void emitsOnlyTheWindowAroundToday() {
+        manager.addEventForDate(TODAY, new Event("팀 미팅", "15:00"));
+        manager.addEventForDate(TODAY.minusDays(7), new Event("지난주 회고", ""));
+        manager.addEventForDate(TODAY.minusDays(8), new Event("오래된 일정", ""));
+        manager.addEventForDate(TODAY.plusDays(61), new Event("먼 일정", ""));
+
+        String context = builder.build("오늘 할 일 알려줘");
+        assertTrue(context.contains("2024-05-22\n- [ ] 팀 미팅 (15:00)\n"));
+        assertTrue(context.contains("지난주 회고"));
+        assertFalse(context.contains("오래된 일정"));
+        assertFalse(context.contains("먼 일정"));
+    }
+
+    @Test
+    public void addsRelatedDatesOutsideTheWindow() {
+        manager.addEventForDate(LocalDate.of(2023, 1, 10), new Event("치과 예약", "10:00"));
+        manager.addEventForDate(LocalDate.of(2021, 3, 1), new Event("치과 예약", "09:00"));
+        manager.addEventForDate(LocalDate.of(2022, 3, 1), new Event("운동", ""));
+        manager.addEventForDate(LocalDate.of(2020, 8, 15), new Event("여행", ""));
+
+        String context = builder.build("치과를 다음 주로 옮겨줘, 2020-08-15 일정도 보여줘");
+        assertTrue(context.contains("2023-01-10"));
+        assertTrue(context.contains("2020-08-15"));
+        // 관련 날짜는 최대 2개이고, 명시한 날짜가 먼저, 그다음 오늘에 가까운 날짜를 고른다.
+        assertFalse(context.contains("2021-03-01"));
+        assertFalse(context.contains("2022-03-01"));
+    }
+
+    @Test
+    public void dateMentionedSeveralTimesStillMakesTheCut() {
+        manager.addEventForDate(LocalDate.of(2020, 8, 15), new Event("여행", ""));
+        manager.addEventForDate(LocalDate.of(2023, 1, 10), new Event("치과 예약", ""));
+        manager.addEventForDate(LocalDate.of(2023, 2, 10), new Event("치과 예약", ""));
+        manager.addEventForDate(LocalDate.of(2023, 3, 10), new Event("치과 예약", ""));
+
+        String context = builder.build("2020-08-15 일정을 2020-08-15 말고 치과 날로, 2020-08-15 꼭 확인해줘");
+        assertTrue(context.contains("2020-08-15\n- [ ] 여행\n"), context);
+        assertTrue(context.contains("2023-03-10"));
+        assertFalse(context.contains("2023-01-10"));
+    }
+
+    @Test
+    public void followsChangesToCachedDates() {
+        manager.addEventForDate(TODAY, new Event("운동", "18:00"));
+        LocalDate old = LocalDate.of(2022, 1, 5);
+        String first = builder.build("운동");
+        assertEquals(first, builder.build("운동"));
+
+        manager.toggleEventCompletion(TODAY, "운동");
+        manager.addEventForDate(old, new Event("운동 기록", ""));
+        String second = builder.build("운동");
+        assertTrue(second.contains("- [x] 운동 (18:00)"));
+        assertTrue(second.contains("2022-01-05\n- [ ] 운동 기록\n"));
+
+        manager.deleteAllEventsForDate(old);
+        assertFalse(builder.build("운동").contains("2022-01-05"));
+    }
+
+    @Test
+    public void trimsToTheTokenBudgetKeepingMentionedDatesFirst() {
+        for (int day = -7; day <= 60; day++) {
+            for (int i = 0; i < 5; i++) {
+                manager.addEventForDate(TODAY.plusDays(day), new Event("일정 " + day + "-" + i, "10:00"));
+            }
+        }
+        String full = builder.build("내일 일정 알려줘");
+        String trimmed = builder.build("내일이랑 2024-07-01 일정 알려줘", 300);
+
+        assertTrue(PromptBuilder.estimateTokens(trimmed) <= 300, trimmed);
+        assertTrue(PromptBuilder.estimateTokens(full) > 300);
+        // 명령에 나온 날짜는 일정을 다 적는다.
+        assertTrue(trimmed.contains("2024-05-23\n- [ ] 일정 1-0 (10:00)\n"));
+        assertTrue(trimmed.contains("2024-07-01\n- [ ] 일정 40-0 (10:00)\n"));
+        assertTrue(trimmed.contains("omitted to fit the prompt budget"));
+        // 예산 안이면 그대로다.
+        assertEquals(full, builder.build("내일 일정 알려줘", PromptBuilder.estimateTokens(full) * 2));
+    }
+
+    @Test
+    public void indexesStoredHistoryWithoutLoadingEveryMonth() throws Exception {
+        Path notesFile = tempDir.resolve("history.json");
+        CalendarDataManager writer = new CalendarDataManager(notesFile);
+        for (int month = 0; month < 36; month++) {
+            writer.addEventForDate(LocalDate.of(2019, 1, 10).plusMonths(month), new Event("정기 점검 " + month, ""));
+        }
+        writer.addEventForDate(LocalDate.of(2019, 3, 3), new Event("치과 예약", ""));
+        writer.close();
+
+        CalendarDataManager reopened = new CalendarDataManager(notesFile);
+        try {
+            ScheduleContextBuilder history = new ScheduleContextBuilder(reopened, clock, 7, 60, 2);
+            history.initialIndex().get(10, TimeUnit.SECONDS);
+            assertTrue(history.build("치과 일정 옮겨줘").contains("2019-03-03\n- [ ] 치과 예약\n"));
+            // 색인은 달을 올리지 않고 읽는다. 올라온 달은 기간 안의 달과 고른 날짜의 달뿐이다.
+            assertTrue(reopened.getResidentMonthCount() <= 4, "resident months: " + reopened.getResidentMonthCount());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    public void reportsEmptySchedule() {
+        assertEquals("No scheduled events.", builder.build("아무거나"));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+
+@EnabledOnOs({OS.LINUX, OS.MAC})
+public class ShellExecutorTest {
+
+    private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+    private final ShellExecutor executor = new ShellExecutor(lines::add);
+    private final List<String> seen = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() {
+        executor.close();
+    }
+
+    @Test
+    public void pumpsStderrWhileStdoutIsQuietAndReportsExitCode() throws Exception {
+        // stderr 파이프 버퍼(보통 64KB)를 훨씬 넘게 쓴 뒤에야 stdout 에 쓴다. 순서대로 읽으면 여기서 멈춘다.
+        int id = executor.submit("for i in $(seq 1 20000); do echo \"err $i\" >&2; done; echo done; exit 3");
+        String finished = awaitLine("[" + id + "] Process finished");
+        assertTrue(finished.contains("exit code: 3"), finished);
+        // 남은 출력을 다 읽은 뒤에 종료를 알린다.
+        assertTrue(seen.contains("[" + id + "] done"));
+        assertEquals(20000, seen.stream().filter(line -> line.startsWith("[" + id + "] ERROR: err ")).count());
+    }
+
+    @Test
+    public void killStopsARunningJob() throws Exception {
+        int id = executor.submit("sleep 30");
+        assertEquals(List.of(id), executor.jobs().stream().map(ShellExecutor.JobInfo::id).toList());
+        assertEquals(id, executor.killLatest().orElseThrow());
+        awaitLine("[" + id + "] Killed");
+        assertFalse(executor.kill(id));
+    }
+
+    @Test
+    public void timeoutEndsTheJobAndItsChildren() throws Exception {
+        int id = executor.submit("sleep 30 & sleep 30; wait", Duration.ofMillis(300));
+        awaitLine("[" + id + "] Timed out");
+    }
+
+    @Test
+    public void runsJobsInParallel() throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            executor.submit("sleep 1");
+        }
+        for (int i = 0; i < 5; i++) {
+            awaitLine("Process finished");
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start) < 4);
+    }
+
+    // 받은 줄을 앞에서부터 꺼내며 text 가 든 줄을 기다린다. 지나간 줄은 seen 에 남는다.
+    private String awaitLine(String text) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(15);
+        while (System.nanoTime() < deadline) {
+            String line = lines.poll(100, TimeUnit.MILLISECONDS);
+            if (line == null) continue;
+            seen.add(line);
+            if (line.contains(text)) return line;
+        }
+        throw new AssertionError("no line containing " + text + " in " + seen);
+    }
+}
@@ -0,0 +1,102 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.google.gson.Gson;
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * JSON(Gson) 스냅샷과 바이너리 스냅샷의 저장/로드 시간 비교.
+ * 기본 테스트 실행에는 포함되지 않는다: mvn test -Dtest=SnapshotFormatBenchmark
+ */
+public class SnapshotFormatBenchmark {
+
+    private static final int EVENTS_PER_DAY = 10;
+    private static final String[] TITLES = {"팀 미팅", "운동", "프로젝트 보고서 제출", "친구와 저녁 약속", "Code review", "1:1", "Dentist"};
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void compareLoadAndSave() throws Exception {
+        Gson gson = CalendarDataManager.createGsonBuilder().setPrettyPrinting().create();
+        Type type = new TypeToken<HashMap<LocalDate, List<Event>>>() {}.getType();
+
+        // 워밍업
+        run(gson, type, 10_000, false);
+
+        System.out.printf("%-10s %12s %12s %12s %12s %12s %12s%n",
+                "events", "json save", "json load", "bin save", "bin load", "json size", "bin size");
+        for (int events : new int[] {10_000, 100_000, 1_000_000}) {
+            run(gson, type, events, true);
+        }
+    }
+
+    private void run(Gson gson, Type type, int eventCount, boolean report) throws Exception {
+        Map<LocalDate, List<Event>> calendar = syntheticCalendar(eventCount);
+        Path jsonFile = tempDir.resolve("bench-" + eventCount + ".json");
+        Path binFile = tempDir.resolve("bench-" + eventCount + ".bin");
+
+        long start = System.nanoTime();
+        try (Writer writer = Files.newBufferedWriter(jsonFile, StandardCharsets.UTF_8)) {
+            gson.toJson(calendar, writer);
+        }
+        long jsonSave = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        Map<LocalDate, List<Event>> fromJson;
+        try (Reader reader = Files.newBufferedReader(jsonFile, StandardCharsets.UTF_8)) {
+            fromJson = gson.fromJson(reader, type);
+        }
+        long jsonLoad = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        BinarySnapshotCodec.write(binFile, calendar);
+        long binSave = System.nanoTime() - start;
+
+        start = System.nanoTime();
+        Map<LocalDate, List<Event>> fromBinary = BinarySnapshotCodec.read(binFile);
+        long binLoad = System.nanoTime() - start;
+
+        assertEquals(calendar.size(), fromJson.size());
+        assertEquals(calendar.size(), fromBinary.size());
+
+        if (report) {
+            System.out.printf("%-10d %10.1fms %10.1fms %10.1fms %10.1fms %10.1fMB %10.1fMB%n",
+                    eventCount, jsonSave / 1e6, jsonLoad / 1e6, binSave / 1e6, binLoad / 1e6,
+                    Files.size(jsonFile) / 1e6, Files.size(binFile) / 1e6);
+        }
+        Files.delete(jsonFile);
+        Files.delete(binFile);
+    }
+
+    private Map<LocalDate, List<Event>> syntheticCalendar(int eventCount) {
+        Random random = new Random(42);
+        Map<LocalDate, List<Event>> calendar = new HashMap<>();
+        LocalDate start = LocalDate.of(2000, 1, 1);
+        for (int i = 0; i < eventCount; i++) {
+            LocalDate date = start.plusDays(i / EVENTS_PER_DAY);
+            String time = random.nextInt(4) == 0 ? "" : String.format("%02d:%02d", random.nextInt(24), random.nextInt(4) * 15);
+            Event event = new Event(TITLES[random.nextInt(TITLES.length)], time);
+            event.setCompleted(random.nextBoolean());
+            calendar.computeIfAbsent(date, k -> new ArrayList<>()).add(event);
+        }
+        return calendar;
+    }
+}
@@ -0,0 +1,95 @@
+package com.example;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+public class TerminalOutputBufferTest {
+
+    @Test
+    public void wakesOncePerBurstAndKeepsOrder() {
+        AtomicInteger wakeups = new AtomicInteger();
+        TerminalOutputBuffer buffer = new TerminalOutputBuffer(100, wakeups::incrementAndGet);
+        for (int i = 0; i < 50; i++) {
+            buffer.add("line " + i);
+        }
+        assertEquals(1, wakeups.get());
+
+        List<String> drained = new ArrayList<>();
+        assertEquals(50, buffer.drainTo(drained, 1000));
+        assertEquals("line 0", drained.get(0));
+        assertEquals("line 49", drained.get(49));
+        assertFalse(buffer.finishDrain());
+
+        buffer.add("next");
+        assertEquals(2, wakeups.get());
+    }
+
+    @Test
+    public void dropsOldestLinesBeyondCapacity() {
+        TerminalOutputBuffer buffer = new TerminalOutputBuffer(10, () -> {});
+        for (int i = 0; i < 25; i++) {
+            buffer.add(String.valueOf(i));
+        }
+        assertEquals(10, buffer.size());
+        assertEquals(15, buffer.takeDropped());
+        assertEquals(0, buffer.takeDropped());
+
+        List<String> drained = new ArrayList<>();
+        buffer.drainTo(drained, 100);
+        assertEquals("15", drained.get(0));
+        assertEquals("24", drained.get(9));
+    }
+
+    @Test
+    public void concurrentWritersLoseNothingWithinCapacity() throws Exception {
+        int writers = 4;
+        int perWriter = 20_000;
+        TerminalOutputBuffer buffer = new TerminalOutputBuffer(writers * perWriter, () -> {});
+        ExecutorService pool = Executors.newFixedThreadPool(writers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < perWriter; i++) {
+                    buffer.add(writer + ":" + i);
+                }
+            });
+        }
+
+        // 화면 쪽처럼 한 스레드에서 계속 꺼낸다.
+        start.countDown();
+        List<String> drained = new ArrayList<>();
+        pool.shutdown();
+        while (!pool.isTerminated() || buffer.size() > 0) {
+            buffer.drainTo(drained, 1000);
+            if (buffer.size() == 0) buffer.finishDrain();
+        }
+        assertTrue(pool.awaitTermination(5, TimeUnit.SECONDS));
+        assertEquals(writers * perWriter, drained.size());
+        assertEquals(0, buffer.takeDropped());
+
+        // 쓴 스레드별 순서는 그대로다.
+        int[] next = new int[writers];
+        for (String line : drained) {
+            String[] parts = line.split(":");
+            int writer = Integer.parseInt(parts[0]);
+            assertEquals(next[writer]++, Integer.parseInt(parts[1]));
+        }
+    }
+}